@@ -0,0 +1,28 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Точка входа benchmarks.jar: запускает JMH с теми же аргументами, но по умолчанию сохраняет результаты
+ * в JSON ({@code jmh-result.json} или файл из {@code -rff}), чтобы их можно было сравнить между коммитами.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (Arrays.asList(args).contains("-rf")) {
+            Main.main(args);
+            return;
+        }
+        String[] jsonArgs = new String[args.length + 2];
+        jsonArgs[0] = "-rf";
+        jsonArgs[1] = "json";
+        System.arraycopy(args, 0, jsonArgs, 2, args.length);
+        Main.main(jsonArgs);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+import ru.practicum.shareit.benchmark.dataset.DatasetSettings;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность создания бронирований: {@link #BATCH} вызовов {@code requestBooking} против
+ * одного {@code requestBookings} с тем же числом записей. Результат - бронирований в секунду.
+ * Контекст и данные - как в {@link ServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBatchBenchmark {
+
+    private static final long BOOKER_ID = 2L;
+    private static final int BATCH = 50;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private List<Long> itemIds;
+    private LocalDateTime start;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("spring.datasource.url=jdbc:h2:mem:booking-batch;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        DataSource dataSource = context.getBean(DataSource.class);
+        try (Connection connection = dataSource.getConnection()) {
+            new DatasetGenerator(DatasetSettings.builder().build()).generate(connection);
+        }
+        bookingService = context.getBean(BookingService.class);
+        itemIds = new JdbcTemplate(dataSource).queryForList("SELECT item_id FROM items "
+                + "WHERE is_available AND owner_id <> ? ORDER BY item_id LIMIT ?", Long.class, BOOKER_ID, BATCH);
+        // Бронирования не пересекаются с данными генератора и друг с другом
+        start = LocalDateTime.now().plusYears(20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void single(Blackhole blackhole) {
+        for (BookingDtoRequest request : nextRequests()) {
+            blackhole.consume(bookingService.requestBooking(BOOKER_ID, request));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<BookingBatchResult> batch() {
+        return bookingService.requestBookings(BOOKER_ID, nextRequests());
+    }
+
+    private List<BookingDtoRequest> nextRequests() {
+        LocalDateTime end = start.plusHours(1);
+        List<BookingDtoRequest> requests = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            requests.add(new BookingDtoRequest(null, start, end, itemId));
+        }
+        start = end;
+        return requests;
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Первая страница {@code GET /bookings} и {@code GET /bookings/owner} по состояниям на Postgres с таблицей
+ * {@code bookings}, секционированной по месяцам начала. Перед замером выводится план запроса состояния
+ * ({@code EXPLAIN ANALYZE}): FUTURE читает только секции после текущего месяца, PAST и CURRENT - только
+ * до него включительно, а сортировка по началу позволяет остановиться на первых секциях.
+ * <p>
+ * Бенчмарк читает готовую базу, заполненную {@link ru.practicum.shareit.benchmark.dataset.DatasetGenerator}:
+ * {@code -p url=jdbc:postgresql://... -p user=... -p password=...}. ID автора и владельца - «горячие»
+ * пользователи генератора.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingPartitionBenchmark {
+
+    private static final String SELECT_PAGE = "SELECT b.booking_id, b.start_date, b.end_date, i.item_id, i.name, "
+            + "u.user_id, u.name, b.status FROM bookings b "
+            + "JOIN items i ON i.item_id = b.item_id JOIN users u ON u.user_id = b.booker_id WHERE ";
+    private static final Map<String, String> STATE_CONDITIONS = Map.of(
+            "ALL", "TRUE",
+            "CURRENT", "b.start_date <= ? AND b.end_date >= ?",
+            "PAST", "b.end_date < ? AND b.start_date < ?",
+            "FUTURE", "b.start_date > ?");
+
+    private static final Pattern PARTITION_SCAN = Pattern.compile(
+            " on (bookings_\\w+) .*\\((?:actual rows=(\\d+) loops=(\\d+)|never executed)\\)");
+
+    @Param({"jdbc:postgresql://localhost:6541/postgres"})
+    private String url;
+
+    @Param({"postgres"})
+    private String user;
+
+    @Param({"iamroot"})
+    private String password;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE"})
+    private String state;
+
+    @Param({"1"})
+    private long bookerId;
+
+    @Param({"1"})
+    private long ownerId;
+
+    @Param({"20"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("logging.level.root=WARN")
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--spring.flyway.enabled=false",
+                        "--shareit.bookings.partitioning=none");
+        bookingService = context.getBean(BookingService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        printPlan(jdbcTemplate, "b.booker_id = ?", bookerId);
+        printPlan(jdbcTemplate, "i.owner_id = ?", ownerId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> userBookings() {
+        return bookingService.getUserBookings(bookerId, state, 0, size, BookingSort.START_DESC);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> ownerBookings() {
+        return bookingService.getOwnerBookings(ownerId, state, 0, size, BookingSort.START_DESC);
+    }
+
+    /**
+     * План запроса, равного запросу репозитория для состояния {@link #state}, с теми же параметрами:
+     * секции, отброшенные при планировании, в план не попадают.
+     */
+    private void printPlan(JdbcTemplate jdbcTemplate, String userCondition, long userId) {
+        String condition = STATE_CONDITIONS.get(state);
+        String sql = "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF) " + SELECT_PAGE + userCondition + " AND " + condition
+                + " ORDER BY b.start_date DESC LIMIT " + size;
+        Object[] arguments = new Object[1 + (int) condition.chars().filter(c -> c == '?').count()];
+        arguments[0] = userId;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Arrays.fill(arguments, 1, arguments.length, now);
+        List<String> plan = jdbcTemplate.queryForList(sql, String.class, arguments);
+        System.out.println(System.lineSeparator() + state + ", " + userCondition + ":");
+        compact(plan).forEach(System.out::println);
+    }
+
+    /**
+     * Сворачивает чтения отдельных секций в одну строку с их числом, первой и последней секцией
+     * и числом прочитанных строк: план по сотне секций иначе занимает сотни строк.
+     */
+    private static List<String> compact(List<String> plan) {
+        List<String> lines = new ArrayList<>();
+        List<String> partitions = new ArrayList<>();
+        long rows = 0;
+        int partitionsLine = -1;
+        int skippedIndent = -1;
+        for (String line : plan) {
+            int indent = line.length() - line.stripLeading().length();
+            if (skippedIndent >= 0 && indent > skippedIndent) {
+                continue;
+            }
+            skippedIndent = -1;
+            Matcher matcher = PARTITION_SCAN.matcher(line);
+            if (!matcher.find()) {
+                lines.add(line);
+                continue;
+            }
+            partitions.add(matcher.group(1));
+            if (matcher.group(2) != null) {
+                rows += Long.parseLong(matcher.group(2)) * Long.parseLong(matcher.group(3));
+            }
+            skippedIndent = indent;
+            if (partitionsLine < 0) {
+                partitionsLine = lines.size();
+                lines.add(line.substring(0, indent));
+            }
+        }
+        if (partitionsLine >= 0) {
+            lines.set(partitionsLine, lines.get(partitionsLine) + "->  секций: " + partitions.size() + " ("
+                    + partitions.get(0) + " .. " + partitions.get(partitions.size() - 1) + "), строк: " + rows);
+        }
+        return lines;
+    }
+}
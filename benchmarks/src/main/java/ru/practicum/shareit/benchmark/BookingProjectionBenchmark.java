@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+import ru.practicum.shareit.benchmark.dataset.DatasetSettings;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingRecord;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.repository.BookingRecordRepository;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Страница бронирований владельца: загрузка сущностей {@link BookingRecord} с вещью, владельцем и автором
+ * и преобразование {@link BookingMapper} против выборки сразу в {@link BookingDtoResponse}.
+ * Оба варианта выполняются в транзакции, как в сервисе. Выделение памяти на страницу видно с {@code -prof gc}.
+ * Контекст и данные - как в {@link ServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingProjectionBenchmark {
+
+    private static final long OWNER_ID = 1L;
+
+    @Param({"100"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private BookingRecordRepository bookingRecordRepository;
+    private TransactionTemplate transactionTemplate;
+    private PageRequest page;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("spring.datasource.url=jdbc:h2:mem:projection;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            new DatasetGenerator(DatasetSettings.builder().build()).generate(connection);
+        }
+        entityManager = context.getBean(EntityManager.class);
+        bookingRecordRepository = context.getBean(BookingRecordRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        page = PageRequest.of(0, size, BookingSort.START_DESC.getSortValue());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> entities() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT b FROM BookingRecord b WHERE b.item.owner.id = :ownerId ORDER BY b.start DESC",
+                        BookingRecord.class)
+                .setParameter("ownerId", OWNER_ID)
+                .setMaxResults(size)
+                .getResultList()
+                .stream()
+                .map(BookingMapper::recordToDtoResponse)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> projection() {
+        return transactionTemplate.execute(status -> bookingRecordRepository.findDtoByOwnerId(OWNER_ID, page));
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Цена таблицы {@code booking_slots} на Postgres: триггер {@code bookings_sync_slot} повторяет каждую запись
+ * в секционированную {@code bookings} в несекционированной {@code booking_slots} с глобальным GiST-индексом
+ * ограничения пересечений. {@code slots=trigger} - как на сервере, {@code slots=disabled} - триггер выключен
+ * на время замера, пересечения подтверждённых бронирований при этом не проверяются. Результат - время
+ * на бронирование: {@link #request()} создаёт пакет ожидающих бронирований (строка {@code booking_slots}
+ * без записи в GiST-индекс), {@link #requestAndApprove()} ещё и подтверждает его (запись в GiST-индекс
+ * и проверка пересечений).
+ * <p>
+ * Как и {@link BookingPartitionBenchmark}, читает готовую базу, заполненную
+ * {@link ru.practicum.shareit.benchmark.dataset.DatasetGenerator}. Бронирования замера ставятся на вещи владельца
+ * без будущих бронирований, начинаются через сутки и укладываются в секции, созданные сервером заранее.
+ * При завершении они удаляются, а триггер включается.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingSlotsBenchmark {
+
+    private static final int BATCH = 50;
+
+    @Param({"jdbc:postgresql://localhost:6541/postgres"})
+    private String url;
+
+    @Param({"postgres"})
+    private String user;
+
+    @Param({"iamroot"})
+    private String password;
+
+    @Param({"1"})
+    private long ownerId;
+
+    @Param({"trigger", "disabled"})
+    private String slots;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private BookingService bookingService;
+    private long bookerId;
+    private List<Long> itemIds;
+    private long lastBookingId;
+    private LocalDateTime start;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("logging.level.root=WARN")
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--spring.flyway.enabled=false");
+        bookingService = context.getBean(BookingService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        bookerId = jdbcTemplate.queryForObject("SELECT MIN(user_id) FROM users WHERE user_id <> ?", Long.class,
+                ownerId);
+        itemIds = jdbcTemplate.queryForList("SELECT item_id FROM items i WHERE is_available AND owner_id = ? "
+                + "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.item_id AND b.end_date > now()) "
+                + "ORDER BY item_id LIMIT ?", Long.class, ownerId, BATCH);
+        if (itemIds.size() < BATCH) {
+            throw new IllegalStateException("У владельца " + ownerId + " меньше " + BATCH
+                    + " доступных вещей без будущих бронирований");
+        }
+        lastBookingId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(booking_id), 0) FROM bookings",
+                Long.class);
+        if (slots.equals("disabled")) {
+            jdbcTemplate.execute("ALTER TABLE bookings DISABLE TRIGGER bookings_sync_slot");
+        }
+        System.out.printf("%nbooking_slots: %d строк, %d МБ с индексами%n",
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_slots", Long.class),
+                jdbcTemplate.queryForObject("SELECT pg_total_relation_size('booking_slots')", Long.class) >> 20);
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE bookings ENABLE TRIGGER bookings_sync_slot");
+            jdbcTemplate.update("DELETE FROM bookings WHERE booking_id > ? AND booker_id = ? AND start_date > ?",
+                    lastBookingId, bookerId, LocalDateTime.now());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<BookingBatchResult> request() {
+        return bookingService.requestBookings(bookerId, nextRequests());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<BookingBatchResult> requestAndApprove() {
+        return bookingService.confirmBookings(ownerId, bookingService.requestBookings(bookerId, nextRequests())
+                .stream()
+                .map(result -> new BookingDecisionDto(result.getBooking().getId(), true))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * По бронированию на каждую вещь: интервалы разных пакетов не пересекаются.
+     */
+    private List<BookingDtoRequest> nextRequests() {
+        LocalDateTime end = start.plusMinutes(5);
+        List<BookingDtoRequest> requests = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            requests.add(new BookingDtoRequest(null, start, end, itemId));
+        }
+        start = end;
+        return requests;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Аргументы вида {@code --name=value} для утилит модуля. Неизвестный аргумент считается ошибкой,
+ * чтобы опечатка не запускала многоминутную генерацию с параметрами по умолчанию.
+ */
+public final class CommandLine {
+
+    private final Map<String, String> values = new HashMap<>();
+    private final Set<String> used = new HashSet<>();
+
+    public CommandLine(String[] args) {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида --name=value: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+    }
+
+    public String getString(String name, String defaultValue) {
+        used.add(name);
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+
+    public long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        return value == null ? defaultValue : Long.parseLong(value.replace("_", ""));
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        String value = getString(name, null);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    public Duration getDuration(String name, Duration defaultValue) {
+        String value = getString(name, null);
+        return value == null ? defaultValue : DurationStyle.detectAndParse(value);
+    }
+
+    /**
+     * Проверяет, что все переданные аргументы были прочитаны.
+     */
+    public void checkUnused() {
+        Set<String> unknown = new HashSet<>(values.keySet());
+        unknown.removeAll(used);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Неизвестные аргументы: " + unknown);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выгрузка всех бронирований владельца в NDJSON ({@link BookingService#exportOwnerBookings(Long)}) при куче
+ * 128 МБ: если память выгрузки зависит от числа строк, форк падает с {@link OutOfMemoryError}.
+ * Владелец с ID 1 - единственный владелец вещей набора, поэтому в выгрузку попадают все {@code bookings}
+ * бронирований. Каждая выгрузка проверяет число строк и выводит верхнюю оценку пика кучи (сумму пиков
+ * её областей).
+ * <p>
+ * Набор хранится в файле H2 во временном каталоге: база в памяти на 5 млн строк в такую кучу не помещается.
+ * Адрес базы передаётся аргументом командной строки: свойства по умолчанию перекрываются адресом базы в памяти
+ * из профиля {@code test}. Генерация идёт в отдельном процессе и в замер не входит, но укладывается в таймаут
+ * первой итерации: на медленной машине она занимает десятки минут.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx128m")
+@Timeout(time = 1, timeUnit = TimeUnit.HOURS)
+public class ExportBenchmark {
+
+    private static final long OWNER_ID = 1L;
+
+    @Param({"5000000"})
+    private long bookings;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        directory = Files.createTempDirectory("shareit-export");
+        String url = "jdbc:h2:file:" + directory.resolve("shareit").toAbsolutePath();
+        generate(url);
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("logging.level.root=WARN")
+                .run("--spring.datasource.url=" + url);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long exportOwnerBookings() throws IOException {
+        LineCounter counter = new LineCounter();
+        bookingService.exportOwnerBookings(OWNER_ID).writeTo(counter);
+        if (counter.lines != bookings) {
+            throw new IllegalStateException("Выгружено " + counter.lines + " строк из " + bookings);
+        }
+        System.out.printf("%nВыгружено %d строк, %d МБ, пик кучи не больше %d МБ%n", counter.lines,
+                counter.bytes >> 20, peakHeapUsed() >> 20);
+        return counter.bytes;
+    }
+
+    /**
+     * Набор генерируется отдельным процессом с кучей по умолчанию: генерации не нужно укладываться в кучу форка.
+     */
+    private void generate(String url) throws IOException, InterruptedException {
+        Process generator = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), DatasetGenerator.class.getName(),
+                "--url=" + url, "--users=2", "--owner-skew=30", "--requests=0", "--comments=0",
+                "--bookings=" + bookings)
+                .inheritIO()
+                .start();
+        if (generator.waitFor() != 0) {
+            throw new IllegalStateException("Генератор набора данных завершился с кодом " + generator.exitValue());
+        }
+    }
+
+    private static long peakHeapUsed() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+                pool.resetPeakUsage();
+            }
+        }
+        return peak;
+    }
+
+    private static class LineCounter extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
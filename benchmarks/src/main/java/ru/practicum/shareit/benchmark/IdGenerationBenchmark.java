@@ -0,0 +1,172 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Вставка {@link #rows} бронирований через Hibernate в одной транзакции при ID из IDENTITY и из
+ * последовательности с оптимизатором pooled-lo. С IDENTITY каждая вставка - отдельный запрос к БД,
+ * с последовательностью вставки уходят пакетами по {@link #BATCH_SIZE}, а последовательность
+ * читается раз на {@link #BATCH_SIZE} ID. Таблицы создаются заново при запуске, поэтому для Postgres
+ * ({@code -p url=jdbc:postgresql://...?reWriteBatchedInserts=true -p user=... -p password=...})
+ * нужна отдельная база.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"jdbc:h2:mem:ids;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    @Param({"test"})
+    private String user;
+
+    @Param({"test"})
+    private String password;
+
+    @Param({"100000"})
+    private int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.URL, url)
+                .applySetting(AvailableSettings.USER, user)
+                .applySetting(AvailableSettings.PASS, password)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(IdentityBooking.class)
+                .addAnnotatedClass(SequenceBooking.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            session.createNativeQuery("TRUNCATE TABLE bench_identity_bookings").executeUpdate();
+            session.createNativeQuery("TRUNCATE TABLE bench_sequence_bookings").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void identity() {
+        insert(IdentityBooking::new);
+    }
+
+    @Benchmark
+    public void pooledSequence() {
+        insert(SequenceBooking::new);
+    }
+
+    private void insert(Supplier<? extends BenchmarkBooking> factory) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 1; i <= rows; i++) {
+                BenchmarkBooking booking = factory.get();
+                booking.setStart(start.plusHours(i));
+                booking.setEnd(start.plusHours(i + 1));
+                booking.setItemId(i % 1000L + 1);
+                booking.setBookerId(i % 100L + 1);
+                booking.setStatus("WAITING");
+                session.persist(booking);
+                if (i % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @MappedSuperclass
+    public abstract static class BenchmarkBooking {
+        @Column(name = "start_date")
+        private LocalDateTime start;
+        @Column(name = "end_date")
+        private LocalDateTime end;
+        @Column(name = "item_id")
+        private Long itemId;
+        @Column(name = "booker_id")
+        private Long bookerId;
+        private String status;
+    }
+
+    @Getter
+    @Setter
+    @Entity
+    @Table(name = "bench_identity_bookings")
+    public static class IdentityBooking extends BenchmarkBooking {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @Column(name = "booking_id")
+        private Long id;
+    }
+
+    @Getter
+    @Setter
+    @Entity
+    @Table(name = "bench_sequence_bookings")
+    public static class SequenceBooking extends BenchmarkBooking {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_bookings_seq")
+        @SequenceGenerator(name = "bench_bookings_seq", sequenceName = "bench_bookings_seq", allocationSize = BATCH_SIZE)
+        @Column(name = "booking_id")
+        private Long id;
+    }
+}
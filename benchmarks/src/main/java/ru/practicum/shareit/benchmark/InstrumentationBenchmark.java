@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.SpringBootMockMvcBuilderCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+import ru.practicum.shareit.benchmark.dataset.DatasetSettings;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Накладные расходы метрик сервера: те же запросы с включёнными метриками ({@code metrics=true})
+ * и с отключёнными ({@code management.metrics.enable.all=false}, без счётчика SQL-запросов). Разница
+ * средних по параметру и есть стоимость инструментирования.
+ * <p>
+ * Запросы выполняются через {@link MockMvc} в том же потоке, с фильтрами и перехватчиками приложения,
+ * включая фильтр метрик {@code http.server.requests}: без сети и второго потока разброс замеров меньше
+ * самой разницы. JMH прогоняет все форки одного значения параметра подряд, поэтому для сравнения варианты
+ * запускаются поочерёдно по одному форку: {@code -p metrics=true -f 1}, затем {@code -p metrics=false -f 1}.
+ * <p>
+ * Замер на JDK 17.0.9, 1 CPU, {@code -Xms1g -Xmx1g}, шесть пар форков, мкс/оп. Разница - среднее по парам
+ * с 95% доверительным интервалом:
+ * <pre>
+ * эндпоинт                metrics=true  metrics=false  разница
+ * GET /users/{id}         201           184            +17 +- 43  (+9% +- 23%)
+ * GET /items              146           162            -17 +- 24  (-10% +- 15%)
+ * GET /bookings/owner     595           553            +42 +- 183 (+8% +- 33%)
+ * </pre>
+ * Разброс между форками (до 30%) на этой машине больше порога в 2%, и ни одна разница от нуля не отличается.
+ * {@code -prof gc} показывает одинаковый объём выделений на запрос в обоих вариантах (55,5 и 56,0 КБ,
+ * 64,7 и 65,0 КБ, 178,7 и 179,0 КБ). Гистограммы вызовов репозиториев при этом отключены, а метрика
+ * {@code shareit.sql.statements} регистрируется один раз на эндпоинт.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class InstrumentationBenchmark {
+
+    private static final String OWNER_ID = "10";
+
+    @Param({"true", "false"})
+    private boolean metrics;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private RequestBuilder getUser;
+    private RequestBuilder getItems;
+    private RequestBuilder getOwnerBookings;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.SERVLET)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("server.port=0",
+                        "logging.level.root=WARN",
+                        "management.metrics.enable.all=" + metrics,
+                        "shareit.metrics.sql-statements=" + metrics)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            new DatasetGenerator(DatasetSettings.builder().build()).generate(connection);
+        }
+
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context);
+        new SpringBootMockMvcBuilderCustomizer((WebApplicationContext) context).customize(builder);
+        mockMvc = builder.build();
+        getUser = get("/users/{userId}", OWNER_ID);
+        getItems = get("/items?from=0&size=20").header("X-Sharer-User-Id", OWNER_ID);
+        getOwnerBookings = get("/bookings/owner?state=ALL&from=0&size=20").header("X-Sharer-User-Id", OWNER_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] getUser() throws Exception {
+        return mockMvc.perform(getUser).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] getItems() throws Exception {
+        return mockMvc.perform(getItems).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] getOwnerBookings() throws Exception {
+        return mockMvc.perform(getOwnerBookings).andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.ItemImportFormat;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка {@code items} вещей одним CSV через {@link ItemService#importItems}: разбор, проверка и запись
+ * порциями. Цель - миллион вещей меньше чем за минуту. Каждая итерация загружает новый файл с
+ * неповторяющимися названиями, файл пишется до замера; каждая десятая строка ссылается на несуществующий
+ * запрос и должна попасть в отчёт как ошибка.
+ * <p>
+ * Контекст с профилем {@code test} пишет в файл H2 пакетными INSERT JDBC ({@code shareit.items.import.loader=batch});
+ * на PostgreSQL сервер загружает те же порции через {@code COPY}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ItemImportBenchmark {
+
+    private static final int INVALID_EVERY = 10;
+
+    @Param({"1000000"})
+    private int items;
+
+    private Path directory;
+    private Path file;
+    private int iteration;
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("shareit-import");
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("spring.datasource.url=jdbc:h2:file:" + directory.resolve("shareit").toAbsolutePath(),
+                        "logging.level.root=WARN")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        ownerId = context.getBean(UserService.class)
+                .createUser(new UserDto(null, "Владелец", "owner@example.com"))
+                .getId();
+        file = directory.resolve("items.csv");
+    }
+
+    @Setup(Level.Iteration)
+    public void writeFile() throws IOException {
+        iteration++;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("name,description,available,requestId\n");
+            for (int i = 0; i < items; i++) {
+                writer.write("\"Вещь " + iteration + "-" + i + "\",\"Описание, вещи " + i + "\","
+                        + (i % 2 == 0) + "," + (i % INVALID_EVERY == 0 ? Long.MAX_VALUE : "") + "\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public ItemImportReport importItems() throws IOException {
+        ItemImportReport report;
+        try (InputStream body = Files.newInputStream(file)) {
+            report = itemService.importItems(ownerId, ItemImportFormat.CSV, body);
+        }
+        long rejected = (items + INVALID_EVERY - 1) / INVALID_EVERY;
+        if (report.getImported() != items - rejected || report.getRejected() != rejected) {
+            throw new IllegalStateException("Загружено " + report.getImported() + ", отклонено "
+                    + report.getRejected() + " из " + items);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Индекс поиска в памяти без Spring и БД: страница из 20 ID по слову (пересечение триграмм), по подстроке
+ * из двух букв (просмотр вещей по порядку ID) и изменение описания одной вещи. Тексты составлены из
+ * словаря инструментов, частоты слов распределены по Ципфу. После построения выводится оценка памяти
+ * на 100 тысяч вещей - та же, что метрика {@code shareit.search.index.memory.per100k}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ItemSearchIndexBenchmark {
+
+    private static final String[] WORDS = {"дрель", "перфоратор", "шуруповёрт", "лестница", "стремянка", "пила",
+            "лобзик", "болгарка", "рубанок", "молоток", "отвёртка", "палатка", "велосипед", "самокат", "байдарка",
+            "проектор", "колонка", "кофеварка", "пылесос", "утюг", "ударная", "аккумуляторная", "складная",
+            "детская", "туристическая", "новая", "лёгкая", "мощная", "компактная", "профессиональная"};
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int items;
+
+    private ItemSearchIndex index;
+    private Random random;
+    private ZipfDistribution words;
+    private long nextUpdated;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        words = new ZipfDistribution(WORDS.length, 1);
+        List<ItemSearchIndex.Document> documents = new ArrayList<>(items);
+        for (long id = 1; id <= items; id++) {
+            documents.add(new ItemSearchIndex.Document(id, text(2), text(6)));
+        }
+        index = ItemSearchIndex.build(documents);
+        System.out.printf("%n%d вещей, %d триграмм, оценка памяти на 100 тысяч вещей: %.1f МБ%n", items,
+                index.gramCount(), index.estimateMemoryBytes() * 100_000.0 / index.documentCount() / (1 << 20));
+    }
+
+    @Benchmark
+    public List<Long> searchWord() {
+        return index.search("байдарка", 0, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public List<Long> searchShort() {
+        return index.search("ка", 0, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public void update() {
+        long itemId = nextUpdated++ % items + 1;
+        index.update(itemId, text(2), text(6), true);
+    }
+
+    private String text(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[words.sample(random) - 1]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Страница {@code page} будущих бронирований одного пользователя по убыванию начала: через OFFSET
+ * ({@code getUserBookings}) и через курсор ({@code getUserBookingsPage}). У пользователя {@code bookings}
+ * бронирований, курсор нужной страницы строится до замера по её предыдущей строке. Время курсорной
+ * выборки не должно зависеть от номера страницы, время OFFSET растёт вместе с ним.
+ * <p>
+ * По умолчанию база - H2 в памяти. H2 не читает индекс (booker_id, start_date, booking_id) в порядке
+ * сортировки и сортирует все подходящие строки, поэтому ровное время курсорной выборки видно только на
+ * Postgres: {@code -p url=jdbc:postgresql://... -p user=... -p password=...}, база должна быть пустой.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+    private static final String STATE = "FUTURE";
+    private static final BookingSort SORT = BookingSort.START_DESC;
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH"})
+    private String url;
+
+    @Param({"test"})
+    private String user;
+
+    @Param({"test"})
+    private String password;
+
+    @Param({"1", "10000"})
+    private int page;
+
+    @Param({"20"})
+    private int size;
+
+    @Param({"250000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private BookingService bookingService;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        if ((long) page * size > bookings) {
+            throw new IllegalArgumentException("Страница " + page + " за пределами " + bookings + " бронирований");
+        }
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("logging.level.root=WARN")
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--spring.datasource.driverClassName="
+                                + (url.startsWith("jdbc:postgresql:") ? "org.postgresql.Driver" : "org.h2.Driver"));
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        insertBookings();
+        bookingService = context.getBean(BookingService.class);
+
+        if (page > 1) {
+            Map<String, Object> previous = jdbcTemplate.queryForMap("SELECT booking_id, start_date FROM bookings "
+                    + "WHERE booker_id = ? ORDER BY start_date DESC, booking_id DESC LIMIT 1 OFFSET ?",
+                    BOOKER_ID, (page - 1) * size - 1);
+            cursor = new PageCursor("start:DESC", ((Number) previous.get("booking_id")).longValue(),
+                    ((Timestamp) previous.get("start_date")).toLocalDateTime().toString()).encode();
+        }
+        Long offsetFirst = offset().get(0).getId();
+        Long keysetFirst = keyset().getContent().get(0).getId();
+        if (!offsetFirst.equals(keysetFirst)) {
+            throw new IllegalStateException("Страница " + page + " начинается с " + offsetFirst + " через OFFSET и с "
+                    + keysetFirst + " через курсор");
+        }
+    }
+
+    /**
+     * Вещь и бронирования удаляются вместе с пользователями, чтобы следующий прогон на той же базе
+     * Postgres начал с пустых таблиц.
+     */
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE user_id IN (?, ?)", OWNER_ID, BOOKER_ID);
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> offset() {
+        return bookingService.getUserBookings(BOOKER_ID, STATE, (page - 1) * size, size, SORT);
+    }
+
+    @Benchmark
+    public CursorPage<BookingDtoResponse> keyset() {
+        return bookingService.getUserBookingsPage(BOOKER_ID, STATE, cursor, size, SORT);
+    }
+
+    /**
+     * Одна вещь и бронирования по минуте, начиная с завтрашнего дня: все попадают в FUTURE.
+     */
+    private void insertBookings() {
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, 'Владелец', 'owner@example.com'), "
+                + "(?, 'Арендатор', 'booker@example.com')", OWNER_ID, BOOKER_ID);
+        jdbcTemplate.update("INSERT INTO items (item_id, name, description, is_available, owner_id) "
+                + "VALUES (1, 'Вещь', 'Описание', TRUE, ?)", OWNER_ID);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 1; i <= bookings; i++) {
+            rows.add(new Object[]{i, Timestamp.valueOf(start.plusMinutes(i)), Timestamp.valueOf(start.plusMinutes(i + 1)),
+                    BOOKER_ID});
+            if (rows.size() == INSERT_BATCH || i == bookings) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, "
+                        + "status) VALUES (?, ?, ?, 1, ?, 'WAITING')", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + (bookings + 1));
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки мапперов и разбора статуса бронирования, без Spring и БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Booking booking;
+    private Item item;
+    private ItemDto itemDto;
+    private Comment comment;
+    private String firstState = "WAITING";
+    private String lastState = "FUTURE";
+
+    @Setup
+    public void setUp() {
+        booking = booking(1);
+        item = booking.getItem();
+        itemDto = ItemMapper.itemToDto(item);
+        comment = new Comment(1L, "Отличная дрель", item, booking.getBooker(), LocalDateTime.now());
+    }
+
+    @Benchmark
+    public BookingDtoResponse bookingToDtoResponse() {
+        return BookingMapper.bookingToDtoResponse(booking);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> bookingDtoResponseList(BookingList list) {
+        return BookingMapper.bookingDtoResponseList(list.bookings);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.itemToDto(item);
+    }
+
+    @Benchmark
+    public Item dtoToItem() {
+        return ItemMapper.dtoToItem(itemDto);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.commentToDto(comment);
+    }
+
+    @Benchmark
+    public BookingStatus statusFromStringFirst() {
+        return BookingStatus.fromString(firstState);
+    }
+
+    @Benchmark
+    public BookingStatus statusFromStringLast() {
+        return BookingStatus.fromString(lastState);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BookingList {
+
+        @Param({"10", "100", "1000"})
+        private int size;
+
+        private List<Booking> bookings;
+
+        @Setup
+        public void setUp() {
+            bookings = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                bookings.add(booking(i));
+            }
+        }
+    }
+
+    private static Booking booking(long id) {
+        User owner = new User(id, "owner" + id, "owner" + id + "@shareit.ru", 0);
+        User booker = new User(id + 1, "booker" + id, "booker" + id + "@shareit.ru", 0);
+        ItemRequest request = new ItemRequest(id, "Нужна дрель", booker, LocalDateTime.now(), 0);
+        Item item = new Item(id, "Дрель " + id, "Простая дрель", true, owner, request, 0, 0);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new Booking(id, start, start.plusDays(1), item, booker, BookingStatus.APPROVED, 0);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Работа шлюза над телом ответа сервера: прежний путь (разбор JSON в {@code Object} и повторная
+ * сериализация) против передачи байтов как есть. Запускать с {@code -prof gc}, чтобы видеть
+ * выделение памяти на запрос ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassthroughBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private byte[] page;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<BookingDtoResponse> bookings = new ArrayList<>(pageSize);
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        for (long id = 1; id <= pageSize; id++) {
+            bookings.add(new BookingDtoResponse(id, start.plusDays(id), start.plusDays(id + 1),
+                    new BookingDtoResponse.Item(id, "Вещь " + id),
+                    new BookingDtoResponse.User(id + 1, "Пользователь " + (id + 1)),
+                    BookingStatus.APPROVED));
+        }
+        page = objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public int objectRoundTrip() throws IOException {
+        Object body = objectMapper.readValue(page, Object.class);
+        output.reset();
+        objectMapper.writeValue(output, body);
+        return output.size();
+    }
+
+    @Benchmark
+    public int passthrough() {
+        output.reset();
+        output.write(page, 0, page.length);
+        return output.size();
+    }
+}
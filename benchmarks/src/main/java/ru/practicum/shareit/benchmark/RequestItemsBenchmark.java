@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+import ru.practicum.shareit.benchmark.dataset.DatasetSettings;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequestSort;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Страница {@code GET /requests/all} с вещами, добавленными в ответ на запросы: прежняя схема с отдельным
+ * запросом вещей для каждого запроса на странице против {@link ItemRequestService#getAllRequests}, который
+ * загружает вещи всей страницы одним запросом. Как и в сервисе, каждый запрос к БД выполняется в своей
+ * транзакции. Контекст и данные - как в {@link ServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestItemsBenchmark {
+
+    private static final long BORROWER_ID = 2L;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private ItemRequestRepository requestRepository;
+    private ItemRequestService itemRequestService;
+    private PageRequest page;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("spring.datasource.url=jdbc:h2:mem:requests;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            new DatasetGenerator(DatasetSettings.builder().build()).generate(connection);
+        }
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        requestRepository = context.getBean(ItemRequestRepository.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+        page = PageRequest.of(0, size, ItemRequestSort.CREATED_DESC.getSortValue());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> perRequest() {
+        List<ItemRequestDto> requests = requestRepository.findAllOtherRequests(BORROWER_ID, page)
+                .getContent()
+                .stream()
+                .map(ItemRequestMapper::requestToDto)
+                .collect(Collectors.toList());
+        requests.forEach(request -> request.setItems(findByRequestId(request.getId())
+                .stream()
+                .map(ItemMapper::itemToDto)
+                .collect(Collectors.toList())));
+        return requests;
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> grouped() {
+        return itemRequestService.getAllRequests(BORROWER_ID, 0, size, ItemRequestSort.CREATED_DESC);
+    }
+
+    /**
+     * Удалённый {@code ItemRepository.findByRequestId}: вне транзакции сервиса он открывал свою.
+     */
+    private List<Item> findByRequestId(Long requestId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT i FROM Item i WHERE i.request.id = :requestId", Item.class)
+                    .setParameter("requestId", requestId)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.benchmark.dataset.DatasetGenerator;
+import ru.practicum.shareit.benchmark.dataset.DatasetSettings;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequestSort;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Макробенчмарки сервисного слоя: контекст сервера без веб-части поднимается на встроенной H2
+ * (профиль test) и заполняется {@link DatasetGenerator} с параметрами по умолчанию. Каждый вызов
+ * идёт через прокси Spring, то есть с транзакциями, кэшами и запросами к БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final long OWNER_ID = 1L;
+    private static final long BORROWER_ID = 2L;
+
+    @Param({"20"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            new DatasetGenerator(DatasetSettings.builder().build()).generate(connection);
+        }
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> getItems() {
+        return itemService.getItems(OWNER_ID, 0, size, ItemSort.ID_ASC);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> getOwnerBookings() {
+        return bookingService.getOwnerBookings(OWNER_ID, "ALL", 0, size, BookingSort.START_DESC);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllRequests() {
+        return itemRequestService.getAllRequests(BORROWER_ID, 0, size, ItemRequestSort.CREATED_DESC);
+    }
+}
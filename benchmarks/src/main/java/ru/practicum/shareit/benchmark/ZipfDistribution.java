@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Распределение Ципфа на ID от 1 до {@code size}: вероятность ID с рангом k пропорциональна
+ * {@code 1 / k^exponent}. Показатель 0 даёт равномерное распределение, 1 и выше — небольшое число
+ * «горячих» ID с младшими номерами.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер распределения должен быть положительным: " + size);
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+    }
+
+    public int sample(Random random) {
+        double point = random.nextDouble() * cumulative[cumulative.length - 1];
+        int position = Arrays.binarySearch(cumulative, point);
+        return (position >= 0 ? position : -position - 1) + 1;
+    }
+}
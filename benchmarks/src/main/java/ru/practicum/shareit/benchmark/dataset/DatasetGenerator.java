@@ -0,0 +1,385 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import ru.practicum.shareit.benchmark.CommandLine;
+import ru.practicum.shareit.benchmark.ZipfDistribution;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Заполняет пустую схему сервера синтетическими пользователями, запросами, вещами, бронированиями
+ * и отзывами. Генерация детерминирована зерном {@link DatasetSettings#getSeed()}, ID строк идут подряд
+ * с единицы, поэтому {@link ru.practicum.shareit.benchmark.load.LoadRunner} с теми же мощностями
+ * и показателями перекоса обращается к тем же «горячим» владельцам и вещам.
+ * <p>
+ * Бронирования одной вещи не пересекаются по времени и распределены вокруг текущего момента, поэтому
+ * в выборках есть прошедшие, текущие и будущие бронирования, а ограничение
+ * {@code bookings_approved_no_overlap} на Postgres не нарушается.
+ * <p>
+ * Запуск: {@code java -cp benchmarks.jar ru.practicum.shareit.benchmark.dataset.DatasetGenerator
+ * --url=jdbc:postgresql://localhost:6541/postgres --user=postgres --password=iamroot --bookings=10000000}
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+    private static final int PROGRESS_ROWS = 1_000_000;
+    private static final Duration MAX_SLOT = Duration.ofHours(42);
+    private static final Duration BOOKING_WINDOW = Duration.ofDays(3650);
+
+    private final DatasetSettings settings;
+
+    public static void main(String[] args) throws SQLException {
+        CommandLine commandLine = new CommandLine(args);
+        String url = commandLine.getString("url", "jdbc:h2:file:./target/shareit;AUTO_SERVER=TRUE");
+        Properties properties = new Properties();
+        properties.setProperty("user", commandLine.getString("user", "test"));
+        properties.setProperty("password", commandLine.getString("password", "test"));
+        DatasetSettings settings = DatasetSettings.fromCommandLine(commandLine);
+        commandLine.checkUnused();
+
+        if (url.startsWith("jdbc:postgresql:")) {
+            properties.setProperty("reWriteBatchedInserts", "true");
+        }
+        try (Connection connection = DriverManager.getConnection(url, properties)) {
+            String vendor = vendor(connection);
+            migrate(url, properties, vendor);
+            if (vendor.equals("postgresql")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET synchronous_commit TO OFF");
+                }
+            }
+            new DatasetGenerator(settings).generate(connection);
+        }
+    }
+
+    public void generate(Connection connection) throws SQLException {
+        checkEmpty(connection);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        List<String> indexes = dropSecondaryIndexes(connection);
+        try {
+            Random random = new Random(settings.getSeed());
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            long started = System.nanoTime();
+
+            insertUsers(connection);
+            insertRequests(connection, random, now);
+            int[] owners = insertItems(connection, random);
+            insertBookings(connection, random, now, owners);
+            insertComments(connection, random, now);
+            insertItemBookingSummaries(connection);
+            restartSequences(connection);
+            connection.commit();
+            createIndexes(connection, indexes);
+            indexes.clear();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+            connection.commit();
+            log.info("Набор данных сгенерирован за {} с", (System.nanoTime() - started) / 1_000_000_000);
+        } finally {
+            if (!indexes.isEmpty()) {
+                connection.rollback();
+                createIndexes(connection, indexes);
+            }
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * На Postgres удаляет индексы, не связанные с ограничениями: построить индекс по готовой таблице
+     * быстрее, чем поддерживать его при каждой вставке. Ограничения (первичные ключи, уникальность,
+     * исключение пересечений) остаются. Возвращает определения удалённых индексов.
+     */
+    private static List<String> dropSecondaryIndexes(Connection connection) throws SQLException {
+        List<String> definitions = new ArrayList<>();
+        if (!vendor(connection).equals("postgresql")) {
+            return definitions;
+        }
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT indexname, indexdef FROM pg_indexes i "
+                    + "WHERE schemaname = current_schema() "
+                    + "AND tablename IN ('users', 'requests', 'items', 'bookings', 'comments') "
+                    + "AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname)")) {
+                List<String> names = new ArrayList<>();
+                while (resultSet.next()) {
+                    names.add(resultSet.getString(1));
+                    // индекс секционированной таблицы создаётся и на всех секциях, а не только на родителе
+                    definitions.add(resultSet.getString(2).replace(" ON ONLY ", " ON "));
+                }
+                for (String name : names) {
+                    statement.execute("DROP INDEX " + name);
+                }
+            }
+        }
+        connection.commit();
+        log.info("Удалено {} вторичных индексов на время загрузки", definitions.size());
+        return definitions;
+    }
+
+    private static void createIndexes(Connection connection, List<String> definitions) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String definition : definitions) {
+                statement.execute(definition);
+                connection.commit();
+            }
+        }
+        if (!definitions.isEmpty()) {
+            log.info("Восстановлено {} вторичных индексов", definitions.size());
+        }
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        try (BatchInsert insert = new BatchInsert(connection, "users",
+                "INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)")) {
+            for (long id = 1; id <= settings.getUsers(); id++) {
+                insert.statement.setLong(1, id);
+                insert.statement.setString(2, "Пользователь " + id);
+                insert.statement.setString(3, "user" + id + "@shareit.ru");
+                insert.add();
+            }
+        }
+    }
+
+    private void insertRequests(Connection connection, Random random, LocalDateTime now) throws SQLException {
+        try (BatchInsert insert = new BatchInsert(connection, "requests",
+                "INSERT INTO requests (request_id, description, requestor_id, created_date) VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= settings.getRequests(); id++) {
+                insert.statement.setLong(1, id);
+                insert.statement.setString(2, "Нужна вещь для задачи " + id);
+                insert.statement.setLong(3, random.nextInt(settings.getUsers()) + 1);
+                insert.statement.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                insert.add();
+            }
+        }
+    }
+
+    /**
+     * Возвращает владельца каждой вещи по её ID.
+     */
+    private int[] insertItems(Connection connection, Random random) throws SQLException {
+        ZipfDistribution ownerDistribution = new ZipfDistribution(settings.getUsers(), settings.getOwnerSkew());
+        int[] owners = new int[settings.getItems() + 1];
+        try (BatchInsert insert = new BatchInsert(connection, "items",
+                "INSERT INTO items (item_id, name, description, is_available, owner_id, request_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= settings.getItems(); id++) {
+                owners[id] = ownerDistribution.sample(random);
+                insert.statement.setLong(1, id);
+                insert.statement.setString(2, "Вещь " + id);
+                insert.statement.setString(3, "Описание вещи " + id);
+                insert.statement.setBoolean(4, random.nextInt(10) != 0);
+                insert.statement.setLong(5, owners[id]);
+                if (settings.getRequests() > 0 && random.nextDouble() < settings.getRequestShare()) {
+                    insert.statement.setLong(6, random.nextInt(settings.getRequests()) + 1);
+                } else {
+                    insert.statement.setNull(6, Types.BIGINT);
+                }
+                insert.add();
+            }
+        }
+        return owners;
+    }
+
+    /**
+     * Бронирования вещи идут подряд в слотах: у каждого бронирования свой слот длиной до 42 часов, начало
+     * в первой половине слота, конец во второй. Для популярных вещей слоты сжимаются, чтобы цепочка
+     * укладывалась в {@link #BOOKING_WINDOW}. Середина цепочки приходится на текущий момент.
+     */
+    private void insertBookings(Connection connection, Random random, LocalDateTime now, int[] owners)
+            throws SQLException {
+        ZipfDistribution itemDistribution = new ZipfDistribution(settings.getItems(), settings.getItemSkew());
+        int[] counts = new int[settings.getItems() + 1];
+        for (long i = 0; i < settings.getBookings(); i++) {
+            counts[itemDistribution.sample(random)]++;
+        }
+
+        createBookingPartitions(connection, now);
+        long id = 0;
+        try (BatchInsert insert = new BatchInsert(connection, "bookings",
+                "INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int itemId = 1; itemId <= settings.getItems(); itemId++) {
+                if (counts[itemId] == 0) {
+                    continue;
+                }
+                long slot = Math.max(2, Math.min(MAX_SLOT.toMinutes(),
+                        BOOKING_WINDOW.toMinutes() / counts[itemId]));
+                LocalDateTime cursor = now.minusMinutes(slot * counts[itemId] / 2);
+                for (int i = 0; i < counts[itemId]; i++) {
+                    LocalDateTime start = cursor.plusMinutes(random.nextInt((int) (slot / 2)));
+                    LocalDateTime end = cursor.plusMinutes(slot / 2 + 1 + random.nextInt((int) (slot - slot / 2)));
+                    cursor = cursor.plusMinutes(slot);
+                    insert.statement.setLong(1, ++id);
+                    insert.statement.setTimestamp(2, Timestamp.valueOf(start));
+                    insert.statement.setTimestamp(3, Timestamp.valueOf(end));
+                    insert.statement.setLong(4, itemId);
+                    insert.statement.setLong(5, booker(random, owners[itemId]));
+                    insert.statement.setString(6, status(random, end.isBefore(now)).name());
+                    insert.add();
+                }
+            }
+        }
+    }
+
+    /**
+     * На Postgres заранее создаёт месячные секции бронирований на всё окно генерации, чтобы строки
+     * не копились в секции по умолчанию.
+     */
+    private static void createBookingPartitions(Connection connection, LocalDateTime now) throws SQLException {
+        if (!vendor(connection).equals("postgresql")) {
+            return;
+        }
+        Duration margin = BOOKING_WINDOW.dividedBy(2).plus(MAX_SLOT);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT ensure_booking_partitions(?, ?)")) {
+            statement.setTimestamp(1, Timestamp.valueOf(now.minus(margin)));
+            statement.setTimestamp(2, Timestamp.valueOf(now.plus(margin)));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                log.info("Создано {} секций бронирований", resultSet.getInt(1));
+            }
+        }
+    }
+
+    private void insertComments(Connection connection, Random random, LocalDateTime now) throws SQLException {
+        ZipfDistribution itemDistribution = new ZipfDistribution(settings.getItems(), settings.getItemSkew());
+        try (BatchInsert insert = new BatchInsert(connection, "comments",
+                "INSERT INTO comments (comment_id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= settings.getComments(); id++) {
+                insert.statement.setLong(1, id);
+                insert.statement.setString(2, "Отзыв " + id);
+                insert.statement.setLong(3, itemDistribution.sample(random));
+                insert.statement.setLong(4, random.nextInt(settings.getUsers()) + 1);
+                insert.statement.setTimestamp(5, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                insert.add();
+            }
+        }
+    }
+
+    /**
+     * Пустые сводки бронирований: сервер вычислит их при первом чтении вещи владельцем.
+     */
+    private static void insertItemBookingSummaries(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO item_booking_summaries (item_id) SELECT item_id FROM items");
+        }
+    }
+
+    /**
+     * Строки вставлены с явными ID, поэтому последовательности сдвигаются за последний ID,
+     * иначе первая же вставка через API получит занятый ключ.
+     */
+    private void restartSequences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE users_seq RESTART WITH " + (settings.getUsers() + 1));
+            statement.execute("ALTER SEQUENCE requests_seq RESTART WITH " + (settings.getRequests() + 1));
+            statement.execute("ALTER SEQUENCE items_seq RESTART WITH " + (settings.getItems() + 1));
+            statement.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + (settings.getBookings() + 1));
+            statement.execute("ALTER SEQUENCE comments_seq RESTART WITH " + (settings.getComments() + 1));
+        }
+    }
+
+    private long booker(Random random, int ownerId) {
+        int booker = random.nextInt(settings.getUsers()) + 1;
+        return booker == ownerId ? booker % settings.getUsers() + 1 : booker;
+    }
+
+    private static BookingStatus status(Random random, boolean past) {
+        int roll = random.nextInt(10);
+        if (past) {
+            return roll < 7 ? BookingStatus.APPROVED : roll < 9 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        return roll < 5 ? BookingStatus.APPROVED : roll < 9 ? BookingStatus.WAITING : BookingStatus.REJECTED;
+    }
+
+    private static void checkEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+            resultSet.next();
+            if (resultSet.getLong(1) > 0) {
+                throw new IllegalStateException("Генератор заполняет только пустую схему, а в таблице users уже "
+                        + resultSet.getLong(1) + " строк");
+            }
+        }
+    }
+
+    private static String vendor(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName().toLowerCase();
+        return product.contains("postgres") ? "postgresql" : product;
+    }
+
+    private static void migrate(String url, Properties properties, String vendor) {
+        Flyway.configure()
+                .dataSource(url, properties.getProperty("user"), properties.getProperty("password"))
+                .locations("classpath:db/migration/common", "classpath:db/migration/" + vendor)
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+    }
+
+    /**
+     * Пакетная вставка: выполняет пакет и фиксирует транзакцию каждые {@link DatasetSettings#getBatchSize()}
+     * строк, чтобы журнал и память драйвера не росли на всю таблицу.
+     */
+    private final class BatchInsert implements AutoCloseable {
+        private final Connection connection;
+        private final String table;
+        private final PreparedStatement statement;
+        private int pending;
+        private long rows;
+
+        private BatchInsert(Connection connection, String table, String sql) throws SQLException {
+            this.connection = connection;
+            this.table = table;
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        private void add() throws SQLException {
+            statement.addBatch();
+            if (++pending == settings.getBatchSize()) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                connection.commit();
+                rows += pending;
+                if (rows / PROGRESS_ROWS != (rows - pending) / PROGRESS_ROWS) {
+                    log.info("{}: вставлено {} строк", table, rows);
+                }
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+                log.info("{}: всего {} строк", table, rows);
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
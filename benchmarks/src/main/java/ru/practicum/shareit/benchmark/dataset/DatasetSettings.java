@@ -0,0 +1,60 @@
+package ru.practicum.shareit.benchmark.dataset;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.benchmark.CommandLine;
+
+/**
+ * Объём и форма синтетического набора данных. Значения по умолчанию соответствуют набору
+ * макробенчмарков; для нагрузочного теста мощности задаются аргументами {@link DatasetGenerator}.
+ */
+@Getter
+@Builder
+public class DatasetSettings {
+
+    @Builder.Default
+    private final int users = 1_000;
+    @Builder.Default
+    private final int requests = 2_000;
+    @Builder.Default
+    private final int items = 5_000;
+    @Builder.Default
+    private final long bookings = 50_000;
+    @Builder.Default
+    private final long comments = 10_000;
+    /**
+     * Показатель Ципфа для владельцев вещей: чем больше, тем больше вещей у пользователей с младшими ID.
+     */
+    @Builder.Default
+    private final double ownerSkew = 1.0;
+    /**
+     * Показатель Ципфа для популярности вещей в бронированиях и отзывах.
+     */
+    @Builder.Default
+    private final double itemSkew = 1.0;
+    /**
+     * Доля вещей, добавленных в ответ на запрос.
+     */
+    @Builder.Default
+    private final double requestShare = 0.2;
+    @Builder.Default
+    private final long seed = 42;
+    @Builder.Default
+    private final int batchSize = 5_000;
+
+    public static DatasetSettings fromCommandLine(CommandLine commandLine) {
+        DatasetSettings defaults = DatasetSettings.builder().build();
+        return DatasetSettings.builder()
+                .users(commandLine.getInt("users", defaults.users))
+                .requests(commandLine.getInt("requests", defaults.requests))
+                .items(commandLine.getInt("items", defaults.items))
+                .bookings(commandLine.getLong("bookings", defaults.bookings))
+                .comments(commandLine.getLong("comments", defaults.comments))
+                .ownerSkew(commandLine.getDouble("owner-skew", defaults.ownerSkew))
+                .itemSkew(commandLine.getDouble("item-skew", defaults.itemSkew))
+                .requestShare(commandLine.getDouble("request-share", defaults.requestShare))
+                .seed(commandLine.getLong("seed", defaults.seed))
+                .batchSize(commandLine.getInt("batch-size", defaults.batchSize))
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.benchmark.ZipfDistribution;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Общие для всех потоков нагрузки параметры: адрес шлюза и распределения ID.
+ */
+@RequiredArgsConstructor
+class LoadContext {
+
+    private final URI gateway;
+    private final Duration timeout;
+    private final int users;
+    private final ZipfDistribution owners;
+    private final ZipfDistribution items;
+
+    HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(gateway.resolve(path)).timeout(timeout).GET();
+    }
+
+    HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    String user(Random random) {
+        return String.valueOf(random.nextInt(users) + 1);
+    }
+
+    String owner(Random random) {
+        return String.valueOf(owners.sample(random));
+    }
+
+    String item(Random random) {
+        return String.valueOf(items.sample(random));
+    }
+}
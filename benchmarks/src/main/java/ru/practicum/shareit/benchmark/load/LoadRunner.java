@@ -0,0 +1,224 @@
+package ru.practicum.shareit.benchmark.load;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.benchmark.CommandLine;
+import ru.practicum.shareit.benchmark.ZipfDistribution;
+import ru.practicum.shareit.benchmark.dataset.DatasetSettings;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный сценарий через шлюз: {@code --threads} потоков в замкнутом цикле выполняют операции
+ * {@link Operation} в пропорциях {@code --mix} в течение {@code --duration}. Первые {@code --warmup}
+ * не учитываются. По каждой операции выводятся перцентили задержки и гистограмма по границам
+ * {@link #BUCKETS}.
+ * <p>
+ * Мощности и перекос ({@code --users}, {@code --items}, {@code --owner-skew}, {@code --item-skew})
+ * должны совпадать с параметрами {@link ru.practicum.shareit.benchmark.dataset.DatasetGenerator}.
+ * <p>
+ * Запуск: {@code java -cp benchmarks.jar ru.practicum.shareit.benchmark.load.LoadRunner
+ * --url=http://localhost:8080 --threads=32 --duration=2m --mix=GET_ITEM:50,SEARCH_ITEMS:50}
+ */
+@Slf4j
+public class LoadRunner {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final Duration[] BUCKETS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofSeconds(5)
+    };
+
+    private final LoadContext context;
+    private final Map<Operation, Integer> mix;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final HttpClient httpClient;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> errors = new EnumMap<>(Operation.class);
+
+    LoadRunner(LoadContext context, Map<Operation, Integer> mix, int threads, Duration warmup,
+               Duration duration) {
+        this.context = context;
+        this.mix = mix;
+        this.threads = threads;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : mix.keySet()) {
+            timers.put(operation, Timer.builder("shareit.load.request")
+                    .tag("operation", operation.name())
+                    .publishPercentiles(PERCENTILES)
+                    .serviceLevelObjectives(BUCKETS)
+                    .distributionStatisticExpiry(duration.plus(warmup).multipliedBy(2))
+                    .distributionStatisticBufferLength(1)
+                    .register(registry));
+            errors.put(operation, Counter.builder("shareit.load.errors")
+                    .tag("operation", operation.name())
+                    .register(registry));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CommandLine commandLine = new CommandLine(args);
+        DatasetSettings defaults = DatasetSettings.builder().build();
+        int users = commandLine.getInt("users", defaults.getUsers());
+        LoadContext context = new LoadContext(
+                URI.create(commandLine.getString("url", "http://localhost:8080")),
+                commandLine.getDuration("timeout", Duration.ofSeconds(30)),
+                users,
+                new ZipfDistribution(users, commandLine.getDouble("owner-skew", defaults.getOwnerSkew())),
+                new ZipfDistribution(commandLine.getInt("items", defaults.getItems()),
+                        commandLine.getDouble("item-skew", defaults.getItemSkew())));
+        Map<Operation, Integer> mix = parseMix(commandLine.getString("mix", null));
+        LoadRunner runner = new LoadRunner(context, mix,
+                commandLine.getInt("threads", 16),
+                commandLine.getDuration("warmup", Duration.ofSeconds(10)),
+                commandLine.getDuration("duration", Duration.ofSeconds(60)));
+        commandLine.checkUnused();
+
+        runner.run();
+        System.out.println(runner.report());
+    }
+
+    public void run() throws InterruptedException {
+        Operation[] table = weightedTable();
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        log.info("Нагрузка: {} потоков, прогрев {}, измерение {}, смесь {}", threads, warmup, duration, mix);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < stopAt) {
+                    execute(table[random.nextInt(table.length)], random, measureFrom);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.plus(warmup).plusMinutes(1).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public String report() {
+        double seconds = duration.toNanos() / 1e9;
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "%n%-20s %9s %7s %9s %9s",
+                "operation", "count", "errors", "rps", "mean,ms"));
+        for (double percentile : PERCENTILES) {
+            report.append(String.format(Locale.ROOT, " %9s", String.format(Locale.ROOT, "p%.1f", percentile * 100)));
+        }
+        report.append(String.format(Locale.ROOT, " %9s%n", "max,ms"));
+
+        List<String> histograms = new ArrayList<>();
+        timers.forEach((operation, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            report.append(String.format(Locale.ROOT, "%-20s %9d %7d %9.1f %9.2f", operation, snapshot.count(),
+                    (long) errors.get(operation).count(), snapshot.count() / seconds,
+                    snapshot.mean(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                report.append(String.format(Locale.ROOT, " %9.2f", value.value(TimeUnit.MILLISECONDS)));
+            }
+            report.append(String.format(Locale.ROOT, " %9.2f%n", snapshot.max(TimeUnit.MILLISECONDS)));
+            histograms.add(histogram(operation, snapshot));
+        });
+
+        report.append(String.format("%nЗапросов не дольше границы, мс:%n"));
+        report.append(String.format(Locale.ROOT, "%-20s", "operation"));
+        for (Duration bucket : BUCKETS) {
+            report.append(String.format(Locale.ROOT, " %7d", bucket.toMillis()));
+        }
+        report.append(String.format("%n"));
+        histograms.forEach(report::append);
+        return report.toString();
+    }
+
+    private void execute(Operation operation, ThreadLocalRandom random, long measureFrom) {
+        long started = System.nanoTime();
+        boolean failed;
+        try {
+            HttpResponse<Void> response = httpClient.send(operation.request(context, random).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (started >= measureFrom) {
+            timers.get(operation).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (failed) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private Operation[] weightedTable() {
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("В смеси операций нет ни одной операции с положительным весом");
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    private static String histogram(Operation operation, HistogramSnapshot snapshot) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-20s", operation));
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            line.append(String.format(Locale.ROOT, " %7d", (long) bucket.count()));
+        }
+        return line.append(String.format("%n")).toString();
+    }
+
+    /**
+     * Разбирает смесь вида {@code GET_ITEM:50,SEARCH_ITEMS:10}; без аргумента используются веса по умолчанию.
+     */
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        if (value == null) {
+            for (Operation operation : Operation.values()) {
+                if (operation.getDefaultWeight() > 0) {
+                    mix.put(operation, operation.getDefaultWeight());
+                }
+            }
+            return mix;
+        }
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Ожидалась операция вида NAME:weight: " + part);
+            }
+            mix.put(Operation.valueOf(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Операции сценария нагрузки и их веса по умолчанию. Пользователи и вещи выбираются
+ * с тем же перекосом, что и при генерации данных, поэтому владельцы с младшими ID получают
+ * больше запросов к своим вещам.
+ */
+public enum Operation {
+
+    GET_USER(10) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/users/" + context.user(random));
+        }
+    },
+    GET_ITEMS(20) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/items?from=0&size=" + PAGE_SIZE).header(USER_HEADER, context.owner(random));
+        }
+    },
+    GET_ITEM(25) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/items/" + context.item(random)).header(USER_HEADER, context.user(random));
+        }
+    },
+    SEARCH_ITEMS(10) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            String text = URLEncoder.encode("вещь " + context.item(random), StandardCharsets.UTF_8);
+            return context.get("/items/search?from=0&size=" + PAGE_SIZE + "&text=" + text);
+        }
+    },
+    GET_USER_BOOKINGS(15) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/bookings?state=ALL&from=0&size=" + PAGE_SIZE)
+                    .header(USER_HEADER, context.user(random));
+        }
+    },
+    GET_OWNER_BOOKINGS(10) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/bookings/owner?state=ALL&from=0&size=" + PAGE_SIZE)
+                    .header(USER_HEADER, context.owner(random));
+        }
+    },
+    GET_ALL_REQUESTS(10) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/requests/all?from=0&size=" + PAGE_SIZE).header(USER_HEADER, context.user(random));
+        }
+    },
+    /**
+     * Запрос на бронирование в далёком будущем. Выключен по умолчанию, так как меняет данные;
+     * включается через {@code --mix}. Ответ 404 для бронирования собственной вещи ожидаем.
+     */
+    POST_BOOKING(0) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                    .plusYears(20).plusHours(random.nextInt(24 * 365));
+            String body = "{\"itemId\":" + context.item(random) + ",\"start\":\"" + start
+                    + "\",\"end\":\"" + start.plusHours(random.nextInt(72) + 1) + "\"}";
+            return context.post("/bookings", body).header(USER_HEADER, context.user(random));
+        }
+    };
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int PAGE_SIZE = 20;
+
+    private final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random);
+}
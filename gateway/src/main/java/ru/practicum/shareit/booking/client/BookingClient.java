@@ -1,65 +1,94 @@
 package ru.practicum.shareit.booking.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.model.BookingSort;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory shareItServerRequestFactory,
+                         ObjectProvider<AsyncServerClient> asyncClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                asyncClient.getIfAvailable()
         );
     }
 
-    public ResponseEntity<Object> requestBooking(Long userId, BookingDtoRequest requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> requestBooking(Long userId, BookingDtoRequest requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> confirmBooking(Long userId, Long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> requestBookings(Long userId, List<BookingDtoRequest> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> confirmBookings(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> confirmBooking(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getBooking(Long userId, Long bookingId, @Nullable String ifNoneMatch) {
+        return get("/" + bookingId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getUserBookings(Long userId, BookingStatus state, int from, int size, BookingSort sort) {
+    public CompletableFuture<ResponseEntity<Object>> getUserBookings(Long userId, BookingStatus state, int from, int size, BookingSort sort,
+                                                                     @Nullable String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size,
                 "sort", sort
         );
-        return get("?state={state}&from={from}&size={size}&sort={sort}", userId, parameters);
+        return getPage("?state={state}&from={from}&size={size}&sort={sort}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId, BookingStatus state, int from, int size, BookingSort sort) {
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookings(Long userId, BookingStatus state, int from, int size, BookingSort sort,
+                                                                      @Nullable String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size,
                 "sort", sort
         );
-        return get("/owner?state={state}&from={from}&size={size}&sort={sort}", userId, parameters);
+        return getPage("/owner?state={state}&from={from}&size={size}&sort={sort}", userId, parameters, cursor);
+    }
+
+    public void exportUserBookings(Long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, response);
+    }
+
+    public void exportOwnerBookings(Long userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId, response);
     }
 }
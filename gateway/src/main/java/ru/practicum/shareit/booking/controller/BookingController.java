@@ -3,18 +3,27 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.model.BookingSort;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.util.CreateValidation;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Validated
@@ -23,48 +32,90 @@ import javax.validation.constraints.Min;
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    private static final int BATCH_LIMIT = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> requestBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @Validated(CreateValidation.class) @RequestBody BookingDtoRequest bookingDtoRequest) {
+    public CompletableFuture<ResponseEntity<Object>> requestBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @Validated(CreateValidation.class) @RequestBody BookingDtoRequest bookingDtoRequest) {
         log.info("BookingGateway: requestBooking. User ID: {}", userId);
         return bookingClient.requestBooking(userId, bookingDtoRequest);
     }
 
+    @PostMapping("/batch")
+    @Validated(CreateValidation.class)
+    public CompletableFuture<ResponseEntity<Object>> requestBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestBody
+                                                                     @NotEmpty(message = "Пакет бронирований пуст", groups = CreateValidation.class)
+                                                                     @Size(max = BATCH_LIMIT, message = "В пакете не больше " + BATCH_LIMIT + " бронирований", groups = CreateValidation.class)
+                                                                     List<@Valid BookingDtoRequest> bookingDtoRequests) {
+        log.info("BookingGateway: requestBookings. User ID: {}, size: {}", userId, bookingDtoRequests.size());
+        return bookingClient.requestBookings(userId, bookingDtoRequests);
+    }
+
+    @PatchMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> confirmBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestBody
+                                                                     @NotEmpty(message = "Пакет решений пуст")
+                                                                     @Size(max = BATCH_LIMIT, message = "В пакете не больше " + BATCH_LIMIT + " решений")
+                                                                     List<@Valid BookingDecisionDto> decisions) {
+        log.info("BookingGateway: confirmBookings. User ID: {}, size: {}", userId, decisions.size());
+        return bookingClient.confirmBookings(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> confirmBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> confirmBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long bookingId,
                                              @RequestParam Boolean approved) {
         return bookingClient.confirmBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @PathVariable Long bookingId,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("BookingGateway: getBooking. Booking ID: {}, User ID: {}", bookingId, userId);
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @RequestParam(defaultValue = "ALL") String state,
                                               @RequestParam(defaultValue = "0") @Min(0) int from,
                                               @RequestParam(defaultValue = "100") @Min(1) @Max(100) int size,
-                                              @RequestParam(defaultValue = "START_DESC") BookingSort sort) {
+                                              @RequestParam(defaultValue = "START_DESC") BookingSort sort,
+                                              @RequestParam(required = false) String cursor) {
         BookingStatus status = BookingStatus.fromString(state);
-        log.info("BookingGateway: getUserBookings. User ID: {}, from: {}, size: {}, sort: {}", userId, from, size, sort);
-        return bookingClient.getUserBookings(userId, status, from, size, sort);
+        log.info("BookingGateway: getUserBookings. User ID: {}, from: {}, size: {}, sort: {}, cursor: {}",
+                userId, from, size, sort, cursor);
+        return bookingClient.getUserBookings(userId, status, from, size, sort, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @RequestParam(defaultValue = "ALL") String state,
                                               @RequestParam(defaultValue = "0") @Min(0) int from,
                                               @RequestParam(defaultValue = "100") @Min(1) @Max(100) int size,
-                                              @RequestParam(defaultValue = "START_DESC") BookingSort sort) {
+                                              @RequestParam(defaultValue = "START_DESC") BookingSort sort,
+                                              @RequestParam(required = false) String cursor) {
         BookingStatus status = BookingStatus.fromString(state);
-        log.info("BookingGateway: getOwnerBookings. User ID: {}, from: {}, size: {}, sort: {}", userId, from, size, sort);
-        return bookingClient.getOwnerBookings(userId, status, from, size, sort);
+        log.info("BookingGateway: getOwnerBookings. User ID: {}, from: {}, size: {}, sort: {}, cursor: {}",
+                userId, from, size, sort, cursor);
+        return bookingClient.getOwnerBookings(userId, status, from, size, sort, cursor);
+    }
+
+    @GetMapping("/export")
+    public void exportUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                   HttpServletResponse response) throws IOException {
+        log.info("BookingGateway: exportUserBookings. User ID: {}", userId);
+        bookingClient.exportUserBookings(userId, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    HttpServletResponse response) throws IOException {
+        log.info("BookingGateway: exportOwnerBookings. User ID: {}", userId);
+        bookingClient.exportOwnerBookings(userId, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto {
+
+    @NotNull(message = "Необходимо указать ID бронирования")
+    private Long bookingId;
+    @NotNull(message = "Необходимо указать решение по бронированию")
+    private Boolean approved;
+}
@@ -26,5 +26,6 @@ public class BookingDtoRequest {
     @Future(message = "Дата окончания бронировая должна быть в будущем", groups = CreateValidation.class)
     @NotNull(message = "Необходимо указать дату конца бронирования", groups = CreateValidation.class)
     private LocalDateTime end;
+    @NotNull(message = "Необходимо указать ID вещи", groups = CreateValidation.class)
     private Long itemId;
 }
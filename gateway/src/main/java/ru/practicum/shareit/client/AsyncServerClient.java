@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Неблокирующий транспорт до сервера на {@link HttpClient} из JDK: поток Tomcat освобождается сразу
+ * после отправки запроса, ответ обрабатывается потоками клиента и передаётся без разбора тела.
+ * Включается свойством {@code shareit-server.client.mode=async}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "async")
+public class AsyncServerClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ShareItServerClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AsyncServerClient(ObjectMapper objectMapper, ShareItServerClientProperties properties,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("virtualThreadExecutor") ObjectProvider<ExecutorService> virtualThreadExecutor) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout());
+        virtualThreadExecutor.ifAvailable(builder::executor);
+        this.httpClient = builder.build();
+    }
+
+    /**
+     * @param uriTemplate шаблон пути, по которому построен {@code uri}; попадает в тег {@code uri} метрики
+     *                    {@code http.client.requests}, как у синхронного {@link org.springframework.web.client.RestTemplate}
+     */
+    public CompletableFuture<ResponseEntity<Object>> exchange(URI uri, String uriTemplate, HttpMethod method,
+                                                              HttpHeaders headers, @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(properties.getReadTimeout())
+                .method(method.name(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(write(body)));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> sample.stop(Timer.builder("http.client.requests")
+                        .tag("method", method.name())
+                        .tag("uri", uriTemplate.startsWith("/") ? uriTemplate : "/" + uriTemplate)
+                        .tag("status", response == null ? "CLIENT_ERROR" : String.valueOf(response.statusCode()))
+                        .tag("client.name", uri.getHost())
+                        .tag("outcome", response == null ? Outcome.UNKNOWN.name()
+                                : Outcome.forStatus(response.statusCode()).name())
+                        .register(meterRegistry)))
+                .thenApply(response -> PassthroughResponses.of(response.statusCode(), response.headers().map(),
+                        response.body()));
+    }
+
+    private byte[] write(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса", e);
+        }
+    }
+}
@@ -1,98 +1,198 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import javax.servlet.http.HttpServletResponse;
+
 public class BaseClient {
     protected final RestTemplate rest;
+    @Nullable
+    private final AsyncServerClient asyncClient;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    /**
+     * @param asyncClient неблокирующий транспорт; если {@code null}, запросы выполняются через {@code rest}
+     *                    в вызывающем потоке, а методы возвращают уже завершённый {@link CompletableFuture}
+     */
+    public BaseClient(RestTemplate rest, @Nullable AsyncServerClient asyncClient) {
         this.rest = rest;
+        this.asyncClient = asyncClient;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return get(path, userId, parameters, null);
+    }
+
+    /**
+     * Условный GET: если {@code ifNoneMatch} совпадает с текущим ETag ресурса, сервер отвечает 304 без тела.
+     */
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                            @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return makeAndSendRequest(HttpMethod.GET, path, headers, parameters, null);
+    }
+
+    /**
+     * GET списка с необязательным курсором: при его наличии сервер отдаёт страницу по ключу
+     * и возвращает курсор следующей страницы в заголовке ответа.
+     */
+    protected CompletableFuture<ResponseEntity<Object>> getPage(String path, Long userId, Map<String, Object> parameters,
+                                                                @Nullable String cursor) {
+        if (cursor == null) {
+            return get(path, userId, parameters);
+        }
+        Map<String, Object> cursorParameters = new HashMap<>(parameters);
+        cursorParameters.put("cursor", cursor);
+        return get(path + "&cursor={cursor}", userId, cursorParameters);
+    }
+
+    /**
+     * GET выгрузки: статус, заголовки и тело ответа сервера передаются в {@code response} по мере получения,
+     * тело не собирается в памяти. Выполняется в вызывающем потоке в обоих режимах клиента, поэтому
+     * длинную выгрузку не обрывает {@code spring.mvc.async.request-timeout}.
+     */
+    protected void stream(String path, Long userId, HttpServletResponse response) throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory()
+                .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+        request.getHeaders().addAll(defaultHeaders(userId));
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        try (ClientHttpResponse serverResponse = request.execute()) {
+            response.setStatus(serverResponse.getRawStatusCode());
+            PassthroughResponses.headers(serverResponse.getHeaders())
+                    .forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+        }
+    }
+
+    /**
+     * POST загрузки: тело передаётся серверу по мере чтения из {@code body}, ответ сервера возвращается целиком.
+     * {@code requestFactory} не должна буферизовать тело: фабрика {@code rest} с перехватчиками метрик собирает
+     * его в памяти. Выполняется в вызывающем потоке в обоих режимах клиента, как и выгрузка.
+     */
+    protected ResponseEntity<Object> upload(ClientHttpRequestFactory requestFactory, String path, Long userId,
+                                            MediaType contentType, InputStream body) throws IOException {
+        ClientHttpRequest request = requestFactory
+                .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.POST);
+        request.getHeaders().addAll(defaultHeaders(userId));
+        request.getHeaders().setContentType(contentType);
+        if (request instanceof StreamingHttpOutputMessage) {
+            ((StreamingHttpOutputMessage) request).setBody(out -> StreamUtils.copy(body, out));
+        } else {
+            StreamUtils.copy(body, request.getBody());
+        }
+        try (ClientHttpResponse serverResponse = request.execute()) {
+            return PassthroughResponses.of(serverResponse.getRawStatusCode(), serverResponse.getHeaders(),
+                    StreamUtils.copyToByteArray(serverResponse.getBody()));
+        }
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, defaultHeaders(userId), parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, defaultHeaders(userId), parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, defaultHeaders(userId), parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, defaultHeaders(userId), parameters, null);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (asyncClient != null) {
+            URI uri = parameters != null
+                    ? rest.getUriTemplateHandler().expand(path, parameters)
+                    : rest.getUriTemplateHandler().expand(path);
+            return asyncClient.exchange(uri, path, method, headers, body);
+        }
+        return CompletableFuture.completedFuture(sendRequest(method, path, headers, parameters, body));
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> ResponseEntity<Object> sendRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return PassthroughResponses.of(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return PassthroughResponses.of(shareitServerResponse.getStatusCodeValue(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -104,18 +204,4 @@ public class BaseClient {
         }
         return headers;
     }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Время вызовов публичных методов клиентов сервера ({@link BaseClient} и наследники) в
+ * {@code shareit.client.requests} с тегами клиента, метода и статуса ответа. Вызов считается
+ * завершённым вместе с {@link CompletableFuture}, поэтому в асинхронном режиме учитывается ожидание ответа.
+ * Задержку самого HTTP-обмена с сервером показывает {@code http.client.requests}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ClientMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public java.util.concurrent.CompletableFuture ru.practicum.shareit.client.BaseClient+.*(..))")
+    public Object timeClientCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String client = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        CompletableFuture<?> result;
+        try {
+            result = (CompletableFuture<?>) joinPoint.proceed();
+        } catch (Throwable e) {
+            stop(sample, client, method, "EXCEPTION");
+            throw e;
+        }
+        return result.whenComplete((response, error) -> stop(sample, client, method,
+                response instanceof ResponseEntity
+                        ? String.valueOf(((ResponseEntity<?>) response).getStatusCodeValue())
+                        : "EXCEPTION"));
+    }
+
+    private void stop(Timer.Sample sample, String client, String method, String status) {
+        sample.stop(Timer.builder("shareit.client.requests")
+                .description("Время вызова клиента сервера ShareIt")
+                .tag("client", client)
+                .tag("method", method)
+                .tag("status", status)
+                .register(meterRegistry));
+    }
+}
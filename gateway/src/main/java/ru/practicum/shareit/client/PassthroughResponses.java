@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ответ сервера для клиента шлюза: статус, заголовки и тело в виде байтов без разбора JSON.
+ * Тело {@code byte[]} записывается {@link org.springframework.http.converter.ByteArrayHttpMessageConverter}
+ * как есть, с {@code Content-Type} сервера. Заголовки соединения с сервером не передаются.
+ */
+@UtilityClass
+public class PassthroughResponses {
+
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "connection",
+            "keep-alive",
+            "proxy-connection",
+            "te",
+            "trailer",
+            "transfer-encoding",
+            "upgrade",
+            "content-length"
+    );
+
+    public static ResponseEntity<Object> of(int status, @Nullable Map<String, List<String>> serverHeaders,
+                                            @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status).headers(headers(serverHeaders));
+        if (body == null || body.length == 0) {
+            return response.build();
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Заголовки ответа сервера без заголовков соединения.
+     */
+    public static HttpHeaders headers(@Nullable Map<String, List<String>> serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
+    }
+}
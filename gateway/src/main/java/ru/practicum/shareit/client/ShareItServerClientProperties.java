@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Параметры общего пула HTTP-соединений с сервером.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ShareItServerClientProperties {
+
+    /**
+     * SYNC - запрос выполняется через RestTemplate в потоке Tomcat, ASYNC - через неблокирующий HttpClient JDK.
+     */
+    private Mode mode = Mode.SYNC;
+
+    /**
+     * Максимум соединений в пуле.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Максимум соединений к одному адресу.
+     */
+    private int maxPerRoute = 100;
+
+    /**
+     * Время жизни соединения, после которого оно не используется повторно.
+     */
+    private Duration timeToLive = Duration.ofMinutes(1);
+
+    /**
+     * Простаивающие дольше соединения закрываются фоновым потоком.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Соединение, простаивавшее дольше, проверяется перед повторным использованием.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Ожидание свободного соединения из пула.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    public enum Mode {
+        SYNC,
+        ASYNC
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.client;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Передаёт {@link ItemResponseCache} события об изменениях из ответов сервера любому клиенту:
+ * вещи меняются не только запросами к {@code /items}, но и подтверждением бронирований и
+ * изменением пользователей. Кэш очищается до того, как ответ на изменение получит клиент шлюза.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "shareit-server.cache.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ItemCacheInvalidationAspect {
+
+    private final ItemResponseCache itemResponseCache;
+
+    @Around("execution(public java.util.concurrent.CompletableFuture ru.practicum.shareit.client.BaseClient+.*(..))")
+    public Object invalidate(ProceedingJoinPoint joinPoint) throws Throwable {
+        CompletableFuture<?> result = (CompletableFuture<?>) joinPoint.proceed();
+        return result.whenComplete((response, error) -> {
+            if (response instanceof ResponseEntity) {
+                List<String> events = ((ResponseEntity<?>) response).getHeaders()
+                        .get(ItemResponseCache.INVALIDATE_HEADER);
+                if (events != null) {
+                    itemResponseCache.invalidate(events);
+                }
+            }
+        });
+    }
+}
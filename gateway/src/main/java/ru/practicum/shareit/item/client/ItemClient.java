@@ -1,65 +1,113 @@
 package ru.practicum.shareit.item.client;
 
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.ItemSort;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    @Nullable
+    private final ItemResponseCache cache;
+    private final HttpComponentsClientHttpRequestFactory uploadRequestFactory;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory shareItServerRequestFactory,
+                      CloseableHttpClient shareItServerHttpClient,
+                      ObjectProvider<AsyncServerClient> asyncClient,
+                      ObjectProvider<ItemResponseCache> cache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                asyncClient.getIfAvailable()
         );
+        this.cache = cache.getIfAvailable();
+        this.uploadRequestFactory = new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient);
+        this.uploadRequestFactory.setBufferRequestBody(false);
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> editItem(Long userId, Long itemId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> editItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemById(Long itemId, Long userId, @Nullable String ifNoneMatch) {
+        String path = "/" + itemId;
+        if (cache == null) {
+            return get(path, userId, null, ifNoneMatch);
+        }
+        return cache.get(ItemResponseCache.Key.item(itemId, userId), ifNoneMatch, eTag -> get(path, userId, null, eTag));
     }
 
-    public ResponseEntity<Object> getItems(Long userId, int from, int size, ItemSort sort) {
+    public CompletableFuture<ResponseEntity<Object>> getItems(Long userId, int from, int size, ItemSort sort, @Nullable String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size,
                 "sort", sort
         );
-        return get("?from={from}&size={size}&sort={sort}", userId, parameters);
+        return getPage("?from={from}&size={size}&sort={sort}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> searchItems(String text, int from, int size, ItemSort sort) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(String text, int from, int size, ItemSort sort,
+                                                                 @Nullable String ifNoneMatch) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size,
                 "sort", sort
         );
-        return get("/search?text={text}&from={from}&size={size}&sort={sort}", null, parameters);
+        String path = "/search?text={text}&from={from}&size={size}&sort={sort}";
+        if (cache == null) {
+            return get(path, null, parameters, ifNoneMatch);
+        }
+        return cache.get(ItemResponseCache.Key.search(text, from, size, sort), ifNoneMatch,
+                eTag -> get(path, null, parameters, eTag));
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public void exportItems(Long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, response);
+    }
+
+    /**
+     * Загрузка не проходит через {@link ItemCacheInvalidationAspect}, поэтому кэш поиска очищается здесь.
+     */
+    public ResponseEntity<Object> importItems(Long userId, MediaType contentType, InputStream body) throws IOException {
+        ResponseEntity<Object> response = upload(uploadRequestFactory, "/import", userId, contentType, body);
+        List<String> events = response.getHeaders().get(ItemResponseCache.INVALIDATE_HEADER);
+        if (cache != null && events != null) {
+            cache.invalidate(events);
+        }
+        return response;
+    }
 }
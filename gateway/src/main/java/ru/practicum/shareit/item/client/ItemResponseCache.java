@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ru.practicum.shareit.item.model.ItemSort;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш ответов сервера на чтение вещи и поиск. Ответ хранится вместе с ETag сервера:
+ * <ul>
+ *     <li>моложе {@code revalidate-after} - отдаётся без обращения к серверу;</li>
+ *     <li>старше - проверяется условным запросом, и при ответе 304 сервер не читает БД;</li>
+ *     <li>удаляется сразу по событиям сервера из заголовка {@code X-ShareIt-Invalidate}.</li>
+ * </ul>
+ * Клиенту шлюза, приславшему совпадающий {@code If-None-Match}, возвращается 304 без тела.
+ * <p>
+ * Число обращений по исходу ({@code hit}, {@code revalidated}, {@code miss}) считается в
+ * {@code shareit.cache.requests}; {@code hit} - запросы, не дошедшие до сервера.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.cache.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ItemResponseCacheProperties.class)
+public class ItemResponseCache {
+
+    static final String INVALIDATE_HEADER = "X-ShareIt-Invalidate";
+
+    private final Cache<Key, Entry> cache;
+    private final long revalidateAfterNanos;
+    private final MeterRegistry meterRegistry;
+    /**
+     * Ответ, запрошенный до события сервера, может содержать уже изменённые данные и в кэш не кладётся.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemResponseCache(ItemResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.revalidateAfterNanos = properties.getRevalidateAfter().toNanos();
+        this.meterRegistry = meterRegistry;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemResponses");
+    }
+
+    /**
+     * @param upstream запрос к серверу; аргумент - ETag для {@code If-None-Match} или {@code null}
+     */
+    public CompletableFuture<ResponseEntity<Object>> get(Key key, @Nullable String ifNoneMatch,
+                                                         Function<String, CompletableFuture<ResponseEntity<Object>>> upstream) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && System.nanoTime() - entry.validatedAt < revalidateAfterNanos) {
+            count(key, "hit");
+            return CompletableFuture.completedFuture(entry.respond(ifNoneMatch));
+        }
+
+        long generation = invalidations.get();
+        return upstream.apply(entry == null ? null : entry.eTag).thenApply(response -> {
+            if (entry != null && response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()) {
+                count(key, "revalidated");
+                return store(key, new Entry(entry.response, entry.eTag, System.nanoTime()), generation)
+                        .respond(ifNoneMatch);
+            }
+            count(key, "miss");
+            String eTag = response.getHeaders().getETag();
+            if (response.getStatusCodeValue() != HttpStatus.OK.value() || eTag == null) {
+                return response;
+            }
+            return store(key, new Entry(response, eTag, System.nanoTime()), generation).respond(ifNoneMatch);
+        });
+    }
+
+    /**
+     * @param events значения заголовка {@code X-ShareIt-Invalidate}: {@code items/{itemId}}, {@code search}, {@code *}
+     */
+    public void invalidate(List<String> events) {
+        invalidations.incrementAndGet();
+        for (String header : events) {
+            for (String event : StringUtils.commaDelimitedListToStringArray(header)) {
+                invalidate(event.trim());
+            }
+        }
+    }
+
+    private void invalidate(String event) {
+        if ("search".equals(event)) {
+            cache.asMap().keySet().removeIf(Key::isSearch);
+        } else if (event.startsWith("items/") && event.length() > "items/".length()) {
+            String itemId = event.substring("items/".length());
+            cache.asMap().keySet().removeIf(key -> !key.isSearch() && key.getItemId().toString().equals(itemId));
+        } else {
+            cache.invalidateAll();
+        }
+    }
+
+    private Entry store(Key key, Entry entry, long generation) {
+        if (invalidations.get() == generation) {
+            cache.put(key, entry);
+        }
+        return entry;
+    }
+
+    private void count(Key key, String result) {
+        Counter.builder("shareit.cache.requests")
+                .description("Обращения к кэшу ответов сервера в шлюзе")
+                .tag("cache", key.isSearch() ? "search" : "item")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Ответ на чтение вещи зависит от пользователя: владельцу видны бронирования.
+     */
+    @Value
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Key {
+        Long itemId;
+        Long userId;
+        String query;
+
+        public static Key item(Long itemId, Long userId) {
+            return new Key(itemId, userId, null);
+        }
+
+        public static Key search(String text, int from, int size, ItemSort sort) {
+            return new Key(null, null, text + '\n' + from + '\n' + size + '\n' + sort);
+        }
+
+        boolean isSearch() {
+            return itemId == null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final String eTag;
+        private final long validatedAt;
+
+        ResponseEntity<Object> respond(@Nullable String ifNoneMatch) {
+            if (ifNoneMatch != null) {
+                for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+                    String tag = candidate.trim();
+                    if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+                    }
+                }
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Параметры кэша ответов {@code GET /items/{itemId}} и {@code GET /items/search} в шлюзе.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ItemResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Максимум ответов в кэше.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Ответ удаляется из кэша, если сервер не подтверждал его дольше.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Более старый ответ перед выдачей проверяется на сервере условным запросом с {@code If-None-Match}.
+     * Ограничивает устаревание при изменениях через другие экземпляры шлюза.
+     */
+    private Duration revalidateAfter = Duration.ofSeconds(5);
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,9 +15,13 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.util.CreateValidation;
 import ru.practicum.shareit.util.UpdateValidation;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Validated
@@ -27,46 +33,65 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @Validated(CreateValidation.class) @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @Validated(CreateValidation.class) @RequestBody ItemDto itemDto) {
         log.info("ItemGateway: addItem. User ID: {}, item: {}", userId, itemDto);
         return itemClient.addItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> editItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> editItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                             @PathVariable Long itemId, @Validated(UpdateValidation.class) @RequestBody ItemDto itemDto) {
         log.info("ItemGateway: editItem. User ID: {}, item ID: {}", userId, itemId);
         return itemClient.editItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                               @PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               @PathVariable Long itemId,
+                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("ItemGateway: getItemById. User ID: {}, item ID: {}", userId, itemId);
-        return itemClient.getItemById(itemId, userId);
+        return itemClient.getItemById(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @RequestParam(defaultValue = "0") @Min(0) int from,
                                   @RequestParam(defaultValue = "100") @Min(1) @Max(100) int size,
-                                  @RequestParam(defaultValue = "ID_ASC", required = false) ItemSort sort) {
-        log.info("ItemGateway: getItems. User ID: {}, from: {}, size: {}, sort: {}", userId, from, size, sort);
-        return itemClient.getItems(userId, from, size, sort);
+                                  @RequestParam(defaultValue = "ID_ASC", required = false) ItemSort sort,
+                                  @RequestParam(required = false) String cursor) {
+        log.info("ItemGateway: getItems. User ID: {}, from: {}, size: {}, sort: {}, cursor: {}",
+                userId, from, size, sort, cursor);
+        return itemClient.getItems(userId, from, size, sort, cursor);
+    }
+
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletResponse response) throws IOException {
+        log.info("ItemGateway: exportItems. User ID: {}", userId);
+        itemClient.exportItems(userId, response);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Object> importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream body) throws IOException {
+        log.info("ItemGateway: importItems. User ID: {}, format: {}", userId, contentType);
+        return itemClient.importItems(userId, contentType, body);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam(value = "text") String text,
+    public CompletableFuture<ResponseEntity<Object>> searchItems(@RequestParam(value = "text") String text,
                                      @RequestParam(defaultValue = "0") @Min(0) int from,
                                      @RequestParam(defaultValue = "100") @Min(1) @Max(100) int size,
-                                     @RequestParam(defaultValue = "ID_ASC", required = false) ItemSort sort) {
+                                     @RequestParam(defaultValue = "ID_ASC", required = false) ItemSort sort,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("ItemGateway: getItems. Text: {}, from: {}, size: {}, sort: {}", text, from, size, sort);
-        return itemClient.searchItems(text, from, size, sort);
+        return itemClient.searchItems(text, from, size, sort, ifNoneMatch);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                  @PathVariable Long itemId, @Valid @RequestBody CommentDto commentDto) {
         log.info("ItemGateway: addComment. User ID: {}, item ID: {}, comment: {}", userId, itemId, commentDto);
         return itemClient.addComment(userId, itemId, commentDto);
@@ -9,7 +9,8 @@ import org.springframework.data.domain.Sort;
 public enum ItemSort {
 
     ID_ASC(Sort.by(Sort.Direction.ASC, "id")),
-    ID_DESC(Sort.by(Sort.Direction.DESC, "id"));
+    ID_DESC(Sort.by(Sort.Direction.DESC, "id")),
+    RELEVANCE(Sort.by(Sort.Direction.ASC, "id"));
 
     private final Sort sortValue;
 }
@@ -1,50 +1,58 @@
 package ru.practicum.shareit.request.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequestSort;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             HttpComponentsClientHttpRequestFactory shareItServerRequestFactory,
+                             ObjectProvider<AsyncServerClient> asyncClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                asyncClient.getIfAvailable()
         );
     }
 
-    public ResponseEntity<Object> addRequest(Long userId, ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addRequest(Long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequests(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size, ItemRequestSort sort) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, int from, int size, ItemRequestSort sort,
+                                                                    @Nullable String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size,
                 "sort", sort
         );
-        return get("/all?from={from}&size={size}&sort={sort}", userId, parameters);
+        return getPage("/all?from={from}&size={size}&sort={sort}", userId, parameters, cursor);
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(Long userId, Long requestId, @Nullable String ifNoneMatch) {
+        return get("/" + requestId, userId, null, ifNoneMatch);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.util.CreateValidation;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Validated
@@ -24,31 +26,34 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @Validated(CreateValidation.class) @RequestBody ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @Validated(CreateValidation.class) @RequestBody ItemRequestDto itemRequestDto) {
         log.info("ItemRequestGateway: addRequest. Request: {}", itemRequestDto);
         return itemRequestClient.addRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("ItemRequestGateway: getRequests. User ID: {}", userId);
         return itemRequestClient.getRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                @RequestParam(defaultValue = "0") @Min(0) int from,
                                                @RequestParam(defaultValue = "100") @Min(1) @Max(100) int size,
-                                               @RequestParam(defaultValue = "CREATED_DESC") ItemRequestSort sort) {
-        log.info("ItemRequestGateway: getAllRequests. User ID: {}, from: {}, size: {}, sort: {}", userId, from, size, sort);
-        return itemRequestClient.getAllRequests(userId, from, size, sort);
+                                               @RequestParam(defaultValue = "CREATED_DESC") ItemRequestSort sort,
+                                               @RequestParam(required = false) String cursor) {
+        log.info("ItemRequestGateway: getAllRequests. User ID: {}, from: {}, size: {}, sort: {}, cursor: {}",
+                userId, from, size, sort, cursor);
+        return itemRequestClient.getAllRequests(userId, from, size, sort, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @PathVariable Long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @PathVariable Long requestId,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("ItemRequestGateway: getRequests. Request ID: {}", requestId);
-        return itemRequestClient.getRequestById(userId, requestId);
+        return itemRequestClient.getRequestById(userId, requestId, ifNoneMatch);
     }
 }
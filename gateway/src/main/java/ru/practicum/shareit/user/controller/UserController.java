@@ -11,6 +11,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.util.CreateValidation;
 import ru.practicum.shareit.util.UpdateValidation;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Validated
 @Controller
@@ -21,31 +23,31 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         log.info("UserGateway: getAllUsers");
         return userClient.getAllUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
         log.info("UserGateway: getUserById. User ID: {}", userId);
         return userClient.getUserById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Validated(CreateValidation.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(@Validated(CreateValidation.class) @RequestBody UserDto userDto) {
         log.info("UserGateway: createUser. User: {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId, @Validated(UpdateValidation.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@PathVariable Long userId, @Validated(UpdateValidation.class) @RequestBody UserDto userDto) {
         log.info("UserGateway: updateUser. User ID: {}", userId);
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("UserGateway: deleteUser. User ID: {}", userId);
         return userClient.deleteUser(userId);
     }
@@ -1,14 +1,24 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.model.BookingSort;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.NdjsonExporter;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
 import java.util.List;
 
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
@@ -18,38 +28,74 @@ public class BookingController {
 
     @PostMapping
     public BookingDtoResponse requestBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestBody BookingDtoRequest bookingDtoRequest) {
+                                             @Valid @RequestBody BookingDtoRequest bookingDtoRequest) {
         return bookingService.requestBooking(userId, bookingDtoRequest);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> requestBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestBody List<@Valid BookingDtoRequest> bookingDtoRequests) {
+        return bookingService.requestBookings(userId, bookingDtoRequests);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResult> confirmBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestBody List<@Valid BookingDecisionDto> decisions) {
+        return bookingService.confirmBookings(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoResponse confirmBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long bookingId,
-                                             @RequestParam(value = "approved") Boolean approved) {
+                                             @RequestParam(value = "approved", required = false)
+                                             @NotNull(message = "Необходимо указать решение по бронированию")
+                                             Boolean approved) {
         return bookingService.confirmBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
     public BookingDtoResponse getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long bookingId) {
+                                         @PathVariable Long bookingId, WebRequest request) {
+        String eTag = bookingService.getBookingTag(userId, bookingId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return bookingService.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingDtoResponse> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<List<BookingDtoResponse>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                     @RequestParam(value = "state", defaultValue = "ALL") String state,
                                                     @RequestParam(value = "from", defaultValue = "0") int from,
                                                     @RequestParam(value = "size", defaultValue = "100") int size,
-                                                    @RequestParam(value = "sort", defaultValue = "START_DESC") BookingSort sort)  {
-        return bookingService.getUserBookings(userId, state, from, size, sort);
+                                                    @RequestParam(value = "sort", defaultValue = "START_DESC") BookingSort sort,
+                                                    @RequestParam(value = "cursor", required = false) String cursor)  {
+        if (cursor != null) {
+            return bookingService.getUserBookingsPage(userId, state, cursor, size, sort).toResponse();
+        }
+        return ResponseEntity.ok(bookingService.getUserBookings(userId, state, from, size, sort));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResponse> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<List<BookingDtoResponse>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam(value = "state", defaultValue = "ALL") String state,
                                                      @RequestParam(value = "from", defaultValue = "0") int from,
                                                      @RequestParam(value = "size", defaultValue = "100") int size,
-                                                     @RequestParam(value = "sort", defaultValue = "START_DESC") BookingSort sort) {
-        return bookingService.getOwnerBookings(userId, state, from, size, sort);
+                                                     @RequestParam(value = "sort", defaultValue = "START_DESC") BookingSort sort,
+                                                     @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return bookingService.getOwnerBookingsPage(userId, state, cursor, size, sort).toResponse();
+        }
+        return ResponseEntity.ok(bookingService.getOwnerBookings(userId, state, from, size, sort));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return NdjsonExporter.toResponse(bookingService.exportUserBookings(userId));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return NdjsonExporter.toResponse(bookingService.exportOwnerBookings(userId));
     }
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Результат одной записи пакетного запроса. Статус совпадает с тем, что вернул бы запрос
+ * с одним бронированием; при ошибке {@code booking} не заполняется.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingBatchResult {
+
+    private final int status;
+    private final BookingDtoResponse booking;
+    private final String error;
+
+    public static BookingBatchResult ok(BookingDtoResponse booking) {
+        return new BookingBatchResult(HttpStatus.OK.value(), booking, null);
+    }
+
+    public static BookingBatchResult failed(HttpStatus status, String error) {
+        return new BookingBatchResult(status.value(), null, error);
+    }
+}
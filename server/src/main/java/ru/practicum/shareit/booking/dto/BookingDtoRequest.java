@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Data
@@ -12,7 +13,10 @@ import java.time.LocalDateTime;
 public class BookingDtoRequest {
 
     private Long id;
+    @NotNull(message = "Необходимо указать дату начала бронирования")
     private LocalDateTime start;
+    @NotNull(message = "Необходимо указать дату конца бронирования")
     private LocalDateTime end;
+    @NotNull(message = "Необходимо указать ID вещи")
     private Long itemId;
 }
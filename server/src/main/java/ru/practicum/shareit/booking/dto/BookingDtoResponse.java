@@ -21,6 +21,15 @@ public class BookingDtoResponse {
     private User booker;
     private BookingStatus status;
 
+    /**
+     * Для выражения конструктора в запросах {@link ru.practicum.shareit.booking.repository.BookingRepository}:
+     * ответ собирается из колонок, без загрузки сущностей.
+     */
+    public BookingDtoResponse(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName,
+                              Long bookerId, String bookerName, BookingStatus status) {
+        this(id, start, end, new Item(itemId, itemName), new User(bookerId, bookerName), status);
+    }
+
     @Data
     public static class Item {
         private final Long id;
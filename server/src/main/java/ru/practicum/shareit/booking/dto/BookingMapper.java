@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecord;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.util.List;
@@ -27,6 +28,23 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDtoResponse recordToDtoResponse(BookingRecord booking) {
+        return new BookingDtoResponse(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                new BookingDtoResponse.Item(
+                        booking.getItem().getId(),
+                        booking.getItem().getName()
+                ),
+                new BookingDtoResponse.User(
+                        booking.getBooker().getId(),
+                        booking.getBooker().getName()
+                ),
+                booking.getStatus()
+        );
+    }
+
     public static Booking requestDtoToBooking(BookingDtoRequest bookingDtoRequest) {
         return new Booking(
                 bookingDtoRequest.getId(),
@@ -34,7 +52,8 @@ public class BookingMapper {
                 bookingDtoRequest.getEnd(),
                 null,
                 null,
-                BookingStatus.WAITING
+                BookingStatus.WAITING,
+                0
         );
     }
 
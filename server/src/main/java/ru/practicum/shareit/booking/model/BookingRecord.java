@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование из таблицы {@code bookings} или из архива {@code bookings_history}: представление
+ * {@code bookings_all} объединяет обе таблицы. Только для чтения - списков, где встречаются завершённые
+ * бронирования, и проверок по истории. Изменяется бронирование через {@link Booking}.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "bookings_all")
+public class BookingRecord {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @ManyToOne
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @ManyToOne
+    @JoinColumn(name = "booker_id")
+    private User booker;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    private long version;
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingRecord;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingNotFoundException;
+import ru.practicum.shareit.util.NdjsonExporter;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Чтение бронирований вместе с архивом: запросы, которым нужны давно завершённые бронирования
+ * (списки ALL, PAST и REJECTED, проверки по истории), идут через представление {@code bookings_all}.
+ * Ожидающие, текущие и будущие бронирования архивироваться не могут и читаются из {@link BookingRepository}.
+ */
+@Repository
+public interface BookingRecordRepository extends JpaRepository<BookingRecord, Long> {
+
+    String SELECT_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDtoResponse(" +
+            "b.id, b.start, b.end, i.id, i.name, u.id, u.name, b.status) " +
+            "FROM BookingRecord b JOIN b.item i JOIN b.booker u ";
+
+    @Query(SELECT_DTO + "WHERE u.id = :bookerId")
+    List<BookingDtoResponse> findDtoByBookerId(Long bookerId, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE u.id = :bookerId AND b.status = :status")
+    List<BookingDtoResponse> findDtoByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE u.id = :bookerId AND b.end < :currentTime AND b.start < :currentTime")
+    List<BookingDtoResponse> findDtoByBookerIdAndEndBefore(Long bookerId, LocalDateTime currentTime, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE i.owner.id = :ownerId")
+    List<BookingDtoResponse> findDtoByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE i.owner.id = :ownerId AND b.status = :status")
+    List<BookingDtoResponse> findDtoByOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE i.owner.id = :ownerId AND b.end < :currentTime AND b.start < :currentTime")
+    List<BookingDtoResponse> findDtoByOwnerIdAndEndBefore(Long ownerId, LocalDateTime currentTime, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(SELECT_DTO + "WHERE u.id = :bookerId ORDER BY b.start, b.id")
+    Stream<BookingDtoResponse> streamDtoByBookerId(Long bookerId);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(SELECT_DTO + "WHERE i.owner.id = :ownerId ORDER BY b.start, b.id")
+    Stream<BookingDtoResponse> streamDtoByOwnerId(Long ownerId);
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN TRUE ELSE FALSE END FROM BookingRecord b " +
+            "WHERE b.booker.id = :bookerId AND b.item.id = :itemId AND b.end < :currentTime AND b.status = :status")
+    boolean existsByBookerIdAndItemIdAndEndBeforeAndStatus(Long bookerId, Long itemId, LocalDateTime currentTime,
+                                                          BookingStatus status);
+
+    @Query("SELECT b.item.id AS itemId, b.id AS bookingId, b.booker.id AS bookerId, b.start AS start " +
+            "FROM BookingRecord b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = :status " +
+            "AND (b.start = (SELECT MAX(l.start) FROM BookingRecord l " +
+            "WHERE l.item.id = b.item.id AND l.status = :status AND l.start < :currentTime) " +
+            "OR b.start = (SELECT MIN(n.start) FROM BookingRecord n " +
+            "WHERE n.item.id = b.item.id AND n.status = :status AND n.start > :currentTime))")
+    List<BookingSlot> findLastAndNextSlots(Collection<Long> itemIds, LocalDateTime currentTime, BookingStatus status);
+
+    @Query("SELECT b.version AS version, b.item.version AS itemVersion, b.booker.version AS bookerVersion, " +
+            "b.booker.id AS bookerId, b.item.owner.id AS ownerId " +
+            "FROM BookingRecord b WHERE b.id = :bookingId")
+    Optional<BookingVersion> findVersionById(Long bookingId);
+
+    @Query("SELECT b.id FROM BookingRecord b WHERE b.id IN :bookingIds AND b.item.owner.id = :ownerId")
+    List<Long> findIdsByIdInAndItemOwnerId(Collection<Long> bookingIds, Long ownerId);
+
+    default BookingRecord getExistingBooking(Long bookingId) {
+        return findById(bookingId).orElseThrow(() -> {
+            throw new BookingNotFoundException("Бронирование с ID: " + bookingId + " не существует");
+        });
+    }
+
+    interface BookingSlot {
+        Long getItemId();
+
+        Long getBookingId();
+
+        Long getBookerId();
+
+        LocalDateTime getStart();
+    }
+
+    interface BookingVersion {
+        long getVersion();
+
+        long getItemVersion();
+
+        long getBookerVersion();
+
+        Long getBookerId();
+
+        Long getOwnerId();
+    }
+}
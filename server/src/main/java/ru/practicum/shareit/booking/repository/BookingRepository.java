@@ -1,54 +1,71 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.BookingNotFoundException;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Page<Booking> findByBookerAndStatus(User booker, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findByBooker(User booker, Pageable pageable);
-
-    Page<Booking> findByBookerAndEndBefore(User booker, LocalDateTime currentTime, Pageable pageable);
-
-    List<Booking> findByBookerAndItemIdAndEndBeforeAndStatus(User booker, Long itemId,
-                                                             LocalDateTime currentTime, BookingStatus status);
-
-    Page<Booking> findByBookerAndStartAfter(User booker, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :bookerId " +
-            "AND :currentTime BETWEEN b.start AND b.end")
-    Page<Booking> findByBookerIdAndCurrentTime(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    Page<Booking> findByItemOwnerAndStatus(User owner, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findByItemOwner(User owner, Pageable pageable);
-
-    Page<Booking> findByItemOwnerAndEndBefore(User owner, LocalDateTime currentTime, Pageable pageable);
-
-    Page<Booking> findByItemOwnerAndStartAfter(User owner, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b " +
-            "LEFT JOIN b.item i " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND :currentTime BETWEEN b.start AND b.end")
-    Page<Booking> findByOwnerIdAndCurrentTime(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    Booking findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(Long itemId, LocalDateTime currentTime, BookingStatus status);
-
-    Booking findFirstByItemIdAndStartAfterAndStatusOrderByStart(Long itemId, LocalDateTime currentTime, BookingStatus status);
+    /**
+     * Списки бронирований выбираются сразу в {@link BookingDtoResponse} одним запросом с соединениями:
+     * только нужные ответу колонки, без сущностей в контексте и без запроса числа строк.
+     * <p>
+     * На Postgres таблица секционирована по {@code start_date}, поэтому каждое условие по времени
+     * ограничивает и начало бронирования: иначе планировщик не отбросит лишние секции.
+     * <p>
+     * Списки, в которые попадают архивированные бронирования (ALL, PAST, REJECTED), читаются
+     * из {@link BookingRecordRepository}.
+     */
+    String SELECT_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDtoResponse(" +
+            "b.id, b.start, b.end, i.id, i.name, u.id, u.name, b.status) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
+
+    @Query(SELECT_DTO + "WHERE u.id = :bookerId AND b.status = :status")
+    List<BookingDtoResponse> findDtoByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE u.id = :bookerId AND b.start > :currentTime")
+    List<BookingDtoResponse> findDtoByBookerIdAndStartAfter(Long bookerId, LocalDateTime currentTime,
+                                                            Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE u.id = :bookerId AND :currentTime BETWEEN b.start AND b.end")
+    List<BookingDtoResponse> findDtoByBookerIdAndCurrentTime(Long bookerId, LocalDateTime currentTime,
+                                                             Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE i.owner.id = :ownerId AND b.status = :status")
+    List<BookingDtoResponse> findDtoByOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE i.owner.id = :ownerId AND b.start > :currentTime")
+    List<BookingDtoResponse> findDtoByOwnerIdAndStartAfter(Long ownerId, LocalDateTime currentTime, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE i.owner.id = :ownerId AND :currentTime BETWEEN b.start AND b.end")
+    List<BookingDtoResponse> findDtoByOwnerIdAndCurrentTime(Long ownerId, LocalDateTime currentTime,
+                                                            Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = :status AND b.end > :currentTime")
+    List<Booking> findByItemIdAndStatusAndEndAfter(Long itemId, BookingStatus status, LocalDateTime currentTime);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = :status AND b.end > :currentTime")
+    List<Booking> findByItemIdInAndStatusAndEndAfter(Collection<Long> itemIds, BookingStatus status,
+                                                     LocalDateTime currentTime);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE (b.booker.id = :userId OR b.item.owner.id = :userId) AND b.status = :status AND b.end > :currentTime")
+    List<Long> findItemIdsByParticipantAndStatusAndEndAfter(Long userId, BookingStatus status,
+                                                            LocalDateTime currentTime);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker " +
+            "WHERE b.id IN :bookingIds")
+    List<Booking> findWithItemAndBookerByIdIn(Collection<Long> bookingIds);
 
     default Booking getExistingBooking(Long bookingId) {
         return findById(bookingId).orElseThrow(() -> {
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки бронирований для постраничной выдачи по курсору. Подходят и для {@code Booking},
+ * и для {@code BookingRecord}: у сущностей одинаковые имена полей.
+ */
+@UtilityClass
+public class BookingSpecifications {
+
+    /**
+     * Вещь с владельцем и автор бронирования загружаются тем же запросом, что и страница. Связи загружаются
+     * сразу, и без соединения каждая строка страницы добавила бы запросы вещи, владельца и автора.
+     * Условия, добавленные после, используют уже соединённую вещь.
+     */
+    public static <T> Specification<T> fetchItemAndBooker() {
+        return (root, query, builder) -> {
+            root.fetch("item").fetch("owner");
+            root.fetch("booker");
+            return null;
+        };
+    }
+
+    public static <T> Specification<T> byBooker(Long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static <T> Specification<T> byItemOwner(Long ownerId) {
+        return (root, query, builder) -> builder.equal(item(root).get("owner").get("id"), ownerId);
+    }
+
+    public static <T> Specification<T> inState(BookingStatus state, LocalDateTime currentTime) {
+        return (root, query, builder) -> {
+            switch (state) {
+                case CURRENT:
+                    return builder.and(builder.lessThanOrEqualTo(root.get("start"), currentTime),
+                            builder.greaterThanOrEqualTo(root.get("end"), currentTime));
+                case PAST:
+                    return builder.and(builder.lessThan(root.get("end"), currentTime),
+                            builder.lessThan(root.get("start"), currentTime));
+                case FUTURE:
+                    return builder.greaterThan(root.get("start"), currentTime);
+                case WAITING:
+                case REJECTED:
+                    return builder.equal(root.get("status"), state);
+                default:
+                    return null;
+            }
+        };
+    }
+
+    private static <T> Path<?> item(Root<T> root) {
+        for (Fetch<T, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals("item")) {
+                return (Join<?, ?>) fetch;
+            }
+        }
+        return root.get("item");
+    }
+}
@@ -0,0 +1,249 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotAvailableException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Допуск подтверждённых бронирований без пересечений. Для каждой вещи хранятся непересекающиеся
+ * интервалы [start, end) подтверждённых бронирований, упорядоченные по началу. Обращения к одной вещи
+ * сериализуются блокировкой из набора, выбираемой по ID вещи, поэтому разные вещи не конкурируют.
+ * <p>
+ * Зафиксированные интервалы кэшируются в Caffeine с ограничением {@code shareit.bookings.admission.spec}
+ * и загружаются из БД при первом обращении, прошедшие отбрасываются. Кэш может отставать от БД: бронирования
+ * удаляются вместе с пользователем и вещью, меняются другими экземплярами сервера. Поэтому пересечение
+ * с кэшированным интервалом перепроверяется по БД, а удаление пользователя сбрасывает интервалы его вещей
+ * и бронирований. Интервалы, подтверждённые в ещё не завершённых транзакциях, хранятся отдельно и
+ * удаляются при завершении транзакции, так что вытеснение из кэша их не теряет.
+ * <p>
+ * Индекс защищает от гонок внутри одного экземпляра сервера; пересечения между экземплярами
+ * отсекает ограничение исключения в БД.
+ */
+@Slf4j
+@Component
+public class BookingAdmission {
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, NavigableMap<LocalDateTime, LocalDateTime>> approved;
+    private final Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> pending = new ConcurrentHashMap<>();
+    private final Lock[] locks = createLocks();
+
+    public BookingAdmission(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                            @Value("${shareit.bookings.admission.spec:maximumSize=100000,expireAfterAccess=1h}")
+                            String spec) {
+        this.bookingRepository = bookingRepository;
+        this.approved = Caffeine.from(spec).build();
+        Gauge.builder("shareit.bookings.admission.items", approved, Cache::estimatedSize)
+                .description("Вещи с интервалами подтверждённых бронирований в кэше допуска")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.admission.pending", pending, Map::size)
+                .description("Вещи с интервалами, подтверждёнными в незавершённых транзакциях")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Загружает интервалы ещё не загруженных вещей одним запросом, чтобы проверка пакета бронирований
+     * не обращалась к БД по каждой вещи.
+     */
+    public void preload(Collection<Long> itemIds) {
+        Set<Long> loaded = approved.getAllPresent(itemIds).keySet();
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !loaded.contains(itemId))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Booking>> approvedByItemId = bookingRepository.findByItemIdInAndStatusAndEndAfter(missing,
+                        BookingStatus.APPROVED, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        for (Long itemId : missing) {
+            Lock lock = lockFor(itemId);
+            lock.lock();
+            try {
+                approved.get(itemId, id -> toIntervals(approvedByItemId.getOrDefault(id, List.of())));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что интервал бронирования не пересекается с уже подтверждёнными.
+     */
+    public void checkAvailable(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            if (overlapsApproved(itemId, booking.getStart(), booking.getEnd())) {
+                throw overlapException(booking);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Атомарно резервирует интервал подтверждаемого бронирования. При фиксации текущей транзакции интервал
+     * переходит в кэш подтверждённых, при откате резерв снимается.
+     */
+    public void reserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            if (overlapsApproved(itemId, start, end)) {
+                throw overlapException(booking);
+            }
+            if (inTransaction) {
+                pending.computeIfAbsent(itemId, id -> new TreeMap<>()).put(start, end);
+            } else {
+                addApproved(itemId, start, end);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(itemId, start, end, status == STATUS_COMMITTED);
+                }
+            });
+        }
+    }
+
+    /**
+     * Удаляется пользователь вместе с его вещами и бронированиями: после фиксации сбрасываются интервалы
+     * вещей, в которых он участвовал как владелец или автор подтверждённого бронирования. Вызывается до удаления.
+     */
+    public void userDeleted(Long userId) {
+        List<Long> itemIds = bookingRepository.findItemIdsByParticipantAndStatusAndEndAfter(userId,
+                BookingStatus.APPROVED, LocalDateTime.now());
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    approved.invalidateAll(itemIds);
+                }
+            });
+        } else {
+            approved.invalidateAll(itemIds);
+        }
+    }
+
+    private void complete(Long itemId, LocalDateTime start, LocalDateTime end, boolean committed) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            NavigableMap<LocalDateTime, LocalDateTime> itemIntervals = pending.get(itemId);
+            if (itemIntervals != null && itemIntervals.remove(start, end) && itemIntervals.isEmpty()) {
+                pending.remove(itemId);
+            }
+            if (committed) {
+                addApproved(itemId, start, end);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Интервал без кэша будет загружен из БД вместе с остальными при следующем обращении.
+     */
+    private void addApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, LocalDateTime> itemIntervals = approved.getIfPresent(itemId);
+        if (itemIntervals != null) {
+            itemIntervals.put(start, end);
+        }
+    }
+
+    /**
+     * Пересечение с интервалом из кэша подтверждается по БД: после перечитывания интервалов вещи
+     * отказ означает пересечение с действительно существующим бронированием.
+     */
+    private boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (overlaps(pending.get(itemId), start, end)) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        NavigableMap<LocalDateTime, LocalDateTime> cached = approved.getIfPresent(itemId);
+        if (cached != null) {
+            while (!cached.isEmpty() && !cached.firstEntry().getValue().isAfter(now)) {
+                cached.pollFirstEntry();
+            }
+            if (!overlaps(cached, start, end)) {
+                return false;
+            }
+        }
+        NavigableMap<LocalDateTime, LocalDateTime> loaded = toIntervals(bookingRepository
+                .findByItemIdAndStatusAndEndAfter(itemId, BookingStatus.APPROVED, now));
+        approved.put(itemId, loaded);
+        return overlaps(loaded, start, end);
+    }
+
+    private static NavigableMap<LocalDateTime, LocalDateTime> toIntervals(List<Booking> bookings) {
+        NavigableMap<LocalDateTime, LocalDateTime> itemIntervals = new TreeMap<>();
+        bookings.forEach(booking -> itemIntervals.put(booking.getStart(), booking.getEnd()));
+        return itemIntervals;
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDateTime, LocalDateTime> itemIntervals,
+                                    LocalDateTime start, LocalDateTime end) {
+        if (itemIntervals == null) {
+            return false;
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> previous = itemIntervals.lowerEntry(end);
+        return previous != null && previous.getValue().isAfter(start);
+    }
+
+    private static NotAvailableException overlapException(Booking booking) {
+        log.warn("Бронирование {} пересекается с подтверждённым бронированием вещи с ID: {}",
+                booking, booking.getItem().getId());
+        return new NotAvailableException("Вещь уже забронирована на выбранное время");
+    }
+
+    private Lock lockFor(Long itemId) {
+        return locks[Long.hashCode(itemId * 0x9E3779B97F4A7C15L) & (LOCK_STRIPES - 1)];
+    }
+
+    private static Lock[] createLocks() {
+        Lock[] locks = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Перенос бронирований, завершившихся больше {@code shareit.bookings.archive.age} назад, из {@code bookings}
+ * в {@code bookings_history}. Ожидающие бронирования не переносятся: они остаются в списке WAITING.
+ * <p>
+ * Архиватор запускается раз в {@code shareit.bookings.archive.interval} и переносит бронирования порциями
+ * по {@code shareit.bookings.archive.batch-size}, каждую в своей транзакции: строки порции блокируются,
+ * копируются в архив и удаляются. Чтение через {@link ru.practicum.shareit.booking.repository.BookingRecordRepository}
+ * видит бронирование ровно в одной из таблиц.
+ * <p>
+ * Метрики: {@code shareit.bookings.archive.rows} - перенесено строк, {@code shareit.bookings.archive.chunks} -
+ * время порции, {@code shareit.bookings.archive.throughput} - строк в секунду за последний запуск,
+ * {@code shareit.bookings.archive.lag} - на сколько секунд самое старое не перенесённое бронирование
+ * старше границы архивации.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.bookings.archive.enabled", havingValue = "true")
+public class BookingArchiver {
+
+    private static final String ARCHIVABLE = "FROM bookings WHERE end_date < :cutoff AND start_date < :cutoff " +
+            "AND status <> '" + BookingStatus.WAITING + "'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final Duration age;
+    private final int batchSize;
+
+    private final Counter archivedRows;
+    private final Timer chunkTimer;
+    private final AtomicLong throughput = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingArchiver(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.bookings.archive.age:P90D}") Duration age,
+                           @Value("${shareit.bookings.archive.batch-size:1000}") int batchSize) {
+        if (age.isNegative() || age.isZero()) {
+            throw new IllegalArgumentException("shareit.bookings.archive.age должен быть положительным: " + age);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("shareit.bookings.archive.batch-size должен быть положительным: "
+                    + batchSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.age = age;
+        this.batchSize = batchSize;
+        this.archivedRows = Counter.builder("shareit.bookings.archive.rows")
+                .description("Бронирования, перенесённые в архив")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("shareit.bookings.archive.chunks")
+                .description("Перенос одной порции бронирований в архив")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.archive.throughput", throughput, AtomicLong::get)
+                .description("Скорость переноса за последний запуск архиватора")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.archive.lag", lagSeconds, AtomicLong::get)
+                .description("Отставание архиватора: возраст самого старого бронирования, ожидающего переноса")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.bookings.archive.interval:PT10M}",
+            fixedDelayString = "${shareit.bookings.archive.interval:PT10M}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        long started = System.nanoTime();
+        long total = 0;
+        int moved;
+        do {
+            moved = chunkTimer.record(() -> chunkTransaction.execute(status -> moveChunk(cutoff)));
+            archivedRows.increment(moved);
+            total += moved;
+        } while (moved == batchSize);
+
+        long elapsed = System.nanoTime() - started;
+        throughput.set(total * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsed, 1));
+        lagSeconds.set(lag(cutoff));
+        if (total > 0) {
+            log.info("Перенесено в архив бронирований, завершившихся до {}: {} за {} мс", cutoff, total,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Переносит одну порцию. Блокировка строк не даёт параллельному подтверждению изменить бронирование
+     * между копированием и удалением.
+     */
+    private int moveChunk(LocalDateTime cutoff) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", batchSize);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT booking_id " + ARCHIVABLE +
+                " ORDER BY end_date LIMIT :limit FOR UPDATE", parameters, Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        parameters.addValue("ids", ids).addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update("INSERT INTO bookings_history " +
+                "(booking_id, start_date, end_date, item_id, booker_id, status, version, archived_at) " +
+                "SELECT booking_id, start_date, end_date, item_id, booker_id, status, version, :archivedAt " +
+                "FROM bookings WHERE booking_id IN (:ids) AND start_date < :cutoff", parameters);
+        jdbcTemplate.update("DELETE FROM bookings WHERE booking_id IN (:ids) AND start_date < :cutoff", parameters);
+        return ids.size();
+    }
+
+    private long lag(LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(end_date) " + ARCHIVABLE,
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)), Timestamp.class);
+        return oldest == null ? 0 : Duration.between(oldest.toLocalDateTime(), cutoff).getSeconds();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Создание месячных секций таблицы {@code bookings} на Postgres ({@code shareit.bookings.partitioning=postgres})
+ * на {@code shareit.bookings.partitions-ahead} месяцев вперёд: при запуске сервера и затем раз в шесть часов.
+ * Бронирования без своей секции попадают в {@code bookings_default} и переносятся в секцию при её создании.
+ * Секции создаёт функция {@code ensure_booking_partitions} под рекомендательной блокировкой, поэтому
+ * несколько экземпляров сервера не мешают друг другу.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.bookings.partitioning", havingValue = "postgres")
+public class BookingPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    public BookingPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       @Value("${shareit.bookings.partitions-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "PT6H")
+    public void ensurePartitions() {
+        Integer created = jdbcTemplate.queryForObject("SELECT ensure_booking_partitions(now()::timestamp, " +
+                "(now() + make_interval(months => ?))::timestamp)", Integer.class, monthsAhead);
+        if (created != null && created > 0) {
+            log.info("Созданы секции бронирований: {}", created);
+        }
+    }
+}
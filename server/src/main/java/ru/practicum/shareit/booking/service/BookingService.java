@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.model.BookingSort;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.List;
 
@@ -10,11 +14,54 @@ public interface BookingService {
 
     BookingDtoResponse requestBooking(Long userId, BookingDtoRequest bookingDtoRequest);
 
+    /**
+     * Подтверждает или отклоняет ожидающее бронирование. Бронирование, перенесённое в архив, завершено и
+     * не меняется: владельцу вещи возвращается {@link ru.practicum.shareit.exception.BookingArchivedException},
+     * остальным - {@link ru.practicum.shareit.exception.BookingNotFoundException}, как для несуществующего.
+     */
     BookingDtoResponse confirmBooking(Long userId, Long bookingId, Boolean approved);
 
+    /**
+     * Создаёт бронирования пакетом. Результаты возвращаются в порядке записей запроса, записи
+     * с ошибками пропускаются, остальные сохраняются в одной транзакции.
+     */
+    List<BookingBatchResult> requestBookings(Long userId, List<BookingDtoRequest> bookingDtoRequests);
+
+    /**
+     * Подтверждает или отклоняет бронирования пакетом, результаты - как у {@link #requestBookings(Long, List)}.
+     * Архивные бронирования владельца получают результат 409, как в {@link #confirmBooking(Long, Long, Boolean)}.
+     */
+    List<BookingBatchResult> confirmBookings(Long userId, List<BookingDecisionDto> decisions);
+
+    /**
+     * Бронирование читается через представление {@code bookings_all} и находится и после переноса в архив.
+     */
     BookingDtoResponse getBooking(Long userId, Long bookingId);
 
+    /**
+     * ETag ответа {@link #getBooking(Long, Long)} по версиям бронирования, вещи и автора;
+     * {@code null}, если бронирования нет или оно недоступно пользователю.
+     */
+    String getBookingTag(Long userId, Long bookingId);
+
     List<BookingDtoResponse> getUserBookings(Long userId, String state, int from, int size, BookingSort sort);
 
     List<BookingDtoResponse> getOwnerBookings(Long userId, String state, int from, int size, BookingSort sort);
+
+    CursorPage<BookingDtoResponse> getUserBookingsPage(Long userId, String state, String cursor, int size,
+                                                       BookingSort sort);
+
+    CursorPage<BookingDtoResponse> getOwnerBookingsPage(Long userId, String state, String cursor, int size,
+                                                        BookingSort sort);
+
+    /**
+     * Все бронирования пользователя, включая архивные, в NDJSON по возрастанию начала. Пользователь
+     * проверяется при вызове, строки читаются из БД при записи тела ответа.
+     */
+    StreamingResponseBody exportUserBookings(Long userId);
+
+    /**
+     * Все бронирования вещей владельца, как {@link #exportUserBookings(Long)}.
+     */
+    StreamingResponseBody exportOwnerBookings(Long userId);
 }
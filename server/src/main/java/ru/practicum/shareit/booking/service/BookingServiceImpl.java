@@ -2,25 +2,48 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecord;
 import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.repository.BookingRecordRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaries;
+import ru.practicum.shareit.item.service.ItemVersions;
+import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.KeysetPager;
+import ru.practicum.shareit.util.NdjsonExporter;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -28,16 +51,23 @@ import java.util.List;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final BookingRecordRepository bookingRecordRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
+    private final BookingAdmission bookingAdmission;
+    private final KeysetPager keysetPager;
+    private final ItemVersions itemVersions;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final NdjsonExporter ndjsonExporter;
 
     @Override
     @Transactional
     public BookingDtoResponse requestBooking(Long userId, BookingDtoRequest bookingDtoRequest) {
         Booking booking = BookingMapper.requestDtoToBooking(bookingDtoRequest);
-        booking.setBooker(userRepository.getExistingUser(userId));
-        booking.setItem(itemRepository.getExistingItem(bookingDtoRequest.getItemId()));
+        booking.setBooker(UserMapper.dtoToUser(userService.getUserById(userId)));
+        booking.setItem(itemRepository.getCachedItem(bookingDtoRequest.getItemId()).toItem());
         requestValidation(booking);
+        bookingAdmission.checkAvailable(booking);
         bookingRepository.save(booking);
         log.info("Оставлен запрос от пользователя с ID: {} на вещь {}", userId, booking.getItem());
         return BookingMapper.bookingToDtoResponse(booking);
@@ -46,94 +76,286 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDtoResponse confirmBooking(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.getExistingBooking(bookingId);
-        Item item = booking.getItem();
+        User owner = UserMapper.dtoToUser(userService.getUserById(userId));
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            throw missingBooking(bookingId, archivedIds(List.of(bookingId), owner).contains(bookingId));
+        }
+        decide(booking, owner, approved);
+        if (approved) {
+            saveApproved(booking);
+            itemBookingSummaries.bookingsApproved(List.of(booking.getItem().getId()));
+            itemVersions.itemChanged(booking.getItem().getId());
+        }
+        return BookingMapper.bookingToDtoResponse(booking);
+    }
 
-        if (!item.getOwner().equals(userRepository.getExistingUser(userId))) {
-            log.warn("Пользователь с ID: " + userId + " не является владельцом вещи: " + item);
-            throw new NotOwnerException("Пользователь не является владельцом вещи");
+    @Override
+    @Transactional
+    public List<BookingBatchResult> requestBookings(Long userId, List<BookingDtoRequest> bookingDtoRequests) {
+        User booker = UserMapper.dtoToUser(userService.getUserById(userId));
+        Map<Long, Item> items = itemRepository.findWithOwnerByIdIn(bookingDtoRequests.stream()
+                        .map(BookingDtoRequest::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        bookingAdmission.preload(items.keySet());
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingDtoRequests.size()];
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedPositions = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            BookingDtoRequest bookingDtoRequest = bookingDtoRequests.get(i);
+            Booking booking = BookingMapper.requestDtoToBooking(bookingDtoRequest);
+            booking.setBooker(booker);
+            booking.setItem(items.get(bookingDtoRequest.getItemId()));
+            try {
+                if (booking.getItem() == null) {
+                    throw new ItemNotFoundException("Предмет с ID: " + bookingDtoRequest.getItemId() + " не существует.");
+                }
+                requestValidation(booking);
+                bookingAdmission.checkAvailable(booking);
+                accepted.add(booking);
+                acceptedPositions.add(i);
+            } catch (ItemNotFoundException | BookingNotFoundException e) {
+                results[i] = BookingBatchResult.failed(HttpStatus.NOT_FOUND, e.getMessage());
+            } catch (NotAvailableException | DateException e) {
+                results[i] = BookingBatchResult.failed(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
         }
 
-        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
-            log.warn("Бронирование с ID: {} уже подтверждено владельцем с ID {}", bookingId, userId);
-            throw new AlreadyApprovedException("Владелец уже подтвердил данное бронирование");
+        bookingRepository.saveAll(accepted);
+        for (int i = 0; i < accepted.size(); i++) {
+            results[acceptedPositions.get(i)] = BookingBatchResult.ok(BookingMapper.bookingToDtoResponse(accepted.get(i)));
         }
+        log.info("Оставлено {} из {} запросов на бронирование от пользователя с ID: {}", accepted.size(),
+                results.length, userId);
+        return Arrays.asList(results);
+    }
 
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-            log.info("Бронирование с ID: {} подтверждено владельцем с ID: {}", bookingId, userId);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
-            log.info("Бронирование с ID: {} отклонено владельцем с ID: {}", bookingId, userId);
+    @Override
+    @Transactional
+    public List<BookingBatchResult> confirmBookings(Long userId, List<BookingDecisionDto> decisions) {
+        User owner = UserMapper.dtoToUser(userService.getUserById(userId));
+        Map<Long, Booking> bookings = bookingRepository.findWithItemAndBookerByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Set<Long> archivedIds = archivedIds(decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(bookingId -> bookingId != null && !bookings.containsKey(bookingId))
+                .collect(Collectors.toList()), owner);
+
+        List<BookingBatchResult> results = new ArrayList<>(decisions.size());
+        Set<Long> approvedItemIds = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = bookings.get(decision.getBookingId());
+            try {
+                if (booking == null) {
+                    throw missingBooking(decision.getBookingId(), archivedIds.contains(decision.getBookingId()));
+                }
+                decide(booking, owner, decision.getApproved());
+                if (decision.getApproved()) {
+                    approvedItemIds.add(booking.getItem().getId());
+                }
+                results.add(BookingBatchResult.ok(BookingMapper.bookingToDtoResponse(booking)));
+            } catch (BookingNotFoundException | NotOwnerException e) {
+                results.add(BookingBatchResult.failed(HttpStatus.NOT_FOUND, e.getMessage()));
+            } catch (AlreadyApprovedException | NotAvailableException e) {
+                results.add(BookingBatchResult.failed(HttpStatus.BAD_REQUEST, e.getMessage()));
+            } catch (BookingArchivedException e) {
+                results.add(BookingBatchResult.failed(HttpStatus.CONFLICT, e.getMessage()));
+            }
         }
 
-        return BookingMapper.bookingToDtoResponse(booking);
+        if (!approvedItemIds.isEmpty()) {
+            saveApproved(bookingRepository::flush);
+            itemBookingSummaries.bookingsApproved(approvedItemIds);
+            itemVersions.itemsChanged(approvedItemIds);
+        }
+        return results;
     }
 
     @Override
     @Transactional
     public BookingDtoResponse getBooking(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.getExistingBooking(bookingId);
-        User user = userRepository.getExistingUser(userId);
+        BookingRecord booking = bookingRecordRepository.getExistingBooking(bookingId);
+        User user = UserMapper.dtoToUser(userService.getUserById(userId));
 
         if (!booking.getBooker().equals(user) && !booking.getItem().getOwner().equals(user)) {
             log.warn("Пользователь с ID: " + userId + " не имеет отношение к " + booking);
             throw new NotOwnerException("Получить данные о бронировании может либо владелец, либо автор бронирования");
         }
 
-        return BookingMapper.bookingToDtoResponse(booking);
+        return BookingMapper.recordToDtoResponse(booking);
+    }
+
+    @Override
+    public String getBookingTag(Long userId, Long bookingId) {
+        return bookingRecordRepository.findVersionById(bookingId)
+                .filter(version -> userId.equals(version.getBookerId()) || userId.equals(version.getOwnerId()))
+                .map(version -> version.getVersion() + "-" + version.getItemVersion() + "-" + version.getBookerVersion())
+                .orElse(null);
     }
 
     @Override
     @Transactional
     public List<BookingDtoResponse> getUserBookings(Long userId, String state, int from, int size, BookingSort sort) {
-        User booker = userRepository.getExistingUser(userId);
+        User booker = UserMapper.dtoToUser(userService.getUserById(userId));
         BookingStatus status = BookingStatus.fromString(state);
         Pageable page = createPageRequest(from, size, sort);
 
         switch (status) {
             case CURRENT:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByBookerIdAndCurrentTime(booker.getId(),
-                        LocalDateTime.now(), page).getContent());
+                return bookingRepository.findDtoByBookerIdAndCurrentTime(booker.getId(), LocalDateTime.now(), page);
             case PAST:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByBookerAndEndBefore(booker,
-                        LocalDateTime.now(), page).getContent());
+                return bookingRecordRepository.findDtoByBookerIdAndEndBefore(booker.getId(), LocalDateTime.now(), page);
             case FUTURE:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByBookerAndStartAfter(booker,
-                        LocalDateTime.now(), page).getContent());
+                return bookingRepository.findDtoByBookerIdAndStartAfter(booker.getId(), LocalDateTime.now(), page);
             case WAITING:
+                return bookingRepository.findDtoByBookerIdAndStatus(booker.getId(), status, page);
             case REJECTED:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByBookerAndStatus(booker,
-                        status, page).getContent());
+                return bookingRecordRepository.findDtoByBookerIdAndStatus(booker.getId(), status, page);
             default:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByBooker(booker, page).getContent());
+                return bookingRecordRepository.findDtoByBookerId(booker.getId(), page);
         }
     }
 
     @Override
     @Transactional
     public List<BookingDtoResponse> getOwnerBookings(Long userId, String state, int from, int size, BookingSort sort) {
-        User owner = userRepository.getExistingUser(userId);
+        User owner = UserMapper.dtoToUser(userService.getUserById(userId));
         BookingStatus status = BookingStatus.fromString(state);
         Pageable page = createPageRequest(from, size, sort);
 
         switch (status) {
             case CURRENT:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByOwnerIdAndCurrentTime(owner.getId(),
-                        LocalDateTime.now(), page).getContent());
+                return bookingRepository.findDtoByOwnerIdAndCurrentTime(owner.getId(), LocalDateTime.now(), page);
             case PAST:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByItemOwnerAndEndBefore(owner,
-                        LocalDateTime.now(), page).getContent());
+                return bookingRecordRepository.findDtoByOwnerIdAndEndBefore(owner.getId(), LocalDateTime.now(), page);
             case FUTURE:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByItemOwnerAndStartAfter(owner,
-                        LocalDateTime.now(), page).getContent());
+                return bookingRepository.findDtoByOwnerIdAndStartAfter(owner.getId(), LocalDateTime.now(), page);
             case WAITING:
+                return bookingRepository.findDtoByOwnerIdAndStatus(owner.getId(), status, page);
             case REJECTED:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByItemOwnerAndStatus(owner,
-                        status, page).getContent());
+                return bookingRecordRepository.findDtoByOwnerIdAndStatus(owner.getId(), status, page);
+            default:
+                return bookingRecordRepository.findDtoByOwnerId(owner.getId(), page);
+        }
+    }
+
+    @Override
+    @Transactional
+    public CursorPage<BookingDtoResponse> getUserBookingsPage(Long userId, String state, String cursor, int size,
+                                                              BookingSort sort) {
+        User booker = UserMapper.dtoToUser(userService.getUserById(userId));
+        BookingStatus status = BookingStatus.fromString(state);
+        if (readsHistory(status)) {
+            return findPage(BookingRecord.class, BookingSpecifications.byBooker(booker.getId()), status, cursor, size,
+                    sort, BookingMapper::recordToDtoResponse);
+        }
+        return findPage(Booking.class, BookingSpecifications.byBooker(booker.getId()), status, cursor, size, sort,
+                BookingMapper::bookingToDtoResponse);
+    }
+
+    @Override
+    @Transactional
+    public CursorPage<BookingDtoResponse> getOwnerBookingsPage(Long userId, String state, String cursor, int size,
+                                                               BookingSort sort) {
+        User owner = UserMapper.dtoToUser(userService.getUserById(userId));
+        BookingStatus status = BookingStatus.fromString(state);
+        if (readsHistory(status)) {
+            return findPage(BookingRecord.class, BookingSpecifications.byItemOwner(owner.getId()), status, cursor,
+                    size, sort, BookingMapper::recordToDtoResponse);
+        }
+        return findPage(Booking.class, BookingSpecifications.byItemOwner(owner.getId()), status, cursor, size, sort,
+                BookingMapper::bookingToDtoResponse);
+    }
+
+    @Override
+    public StreamingResponseBody exportUserBookings(Long userId) {
+        Long bookerId = userService.getUserById(userId).getId();
+        return ndjsonExporter.export(() -> bookingRecordRepository.streamDtoByBookerId(bookerId));
+    }
+
+    @Override
+    public StreamingResponseBody exportOwnerBookings(Long userId) {
+        Long ownerId = userService.getUserById(userId).getId();
+        return ndjsonExporter.export(() -> bookingRecordRepository.streamDtoByOwnerId(ownerId));
+    }
+
+    private <T> CursorPage<BookingDtoResponse> findPage(Class<T> type, Specification<T> filter, BookingStatus status,
+                                                        String cursor, int size, BookingSort sort,
+                                                        Function<T, BookingDtoResponse> mapper) {
+        return keysetPager.findPage(type, BookingSpecifications.<T>fetchItemAndBooker()
+                                .and(filter)
+                                .and(BookingSpecifications.inState(status, LocalDateTime.now())),
+                        sort.getSortValue(), cursor, size)
+                .map(mapper);
+    }
+
+    /**
+     * Состояния, в которые попадают архивированные бронирования ({@link BookingArchiver}): такие списки
+     * читаются вместе с архивом. Ожидающие, текущие и будущие бронирования в архив не переносятся.
+     */
+    private static boolean readsHistory(BookingStatus status) {
+        switch (status) {
+            case WAITING:
+            case CURRENT:
+            case FUTURE:
+                return false;
             default:
-                return BookingMapper.bookingDtoResponseList(bookingRepository.findByItemOwner(owner,
-                        page).getContent());
+                return true;
+        }
+    }
+
+    /**
+     * Бронирования нет в {@code bookings}: его не было или архиватор перенёс его в {@code bookings_history}.
+     * Архивное бронирование завершено, решение по нему принято раньше; владелец вещи узнаёт об этом явно,
+     * остальным оно не раскрывается.
+     */
+    private static RuntimeException missingBooking(Long bookingId, boolean archivedForOwner) {
+        if (archivedForOwner) {
+            log.warn("Бронирование с ID: {} перенесено в архив и не может быть изменено", bookingId);
+            return new BookingArchivedException("Бронирование с ID: " + bookingId
+                    + " завершено и перенесено в архив, изменить его нельзя");
+        }
+        return new BookingNotFoundException("Бронирование с ID: " + bookingId + " не существует");
+    }
+
+    private Set<Long> archivedIds(List<Long> missingIds, User owner) {
+        if (missingIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(bookingRecordRepository.findIdsByIdInAndItemOwnerId(missingIds, owner.getId()));
+    }
+
+    /**
+     * Проверяет, что решение принимает владелец вещи, и меняет статус бронирования. Интервал
+     * подтверждаемого бронирования резервируется в {@link BookingAdmission}.
+     */
+    private void decide(Booking booking, User owner, boolean approved) {
+        Item item = booking.getItem();
+        if (!item.getOwner().equals(owner)) {
+            log.warn("Пользователь с ID: " + owner.getId() + " не является владельцом вещи: " + item);
+            throw new NotOwnerException("Пользователь не является владельцом вещи");
+        }
+
+        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
+            log.warn("Бронирование с ID: {} уже подтверждено владельцем с ID {}", booking.getId(), owner.getId());
+            throw new AlreadyApprovedException("Владелец уже подтвердил данное бронирование");
+        }
+
+        if (approved) {
+            bookingAdmission.reserve(booking);
+            booking.setStatus(BookingStatus.APPROVED);
+            log.info("Бронирование с ID: {} подтверждено владельцем с ID: {}", booking.getId(), owner.getId());
+        } else {
+            booking.setStatus(BookingStatus.REJECTED);
+            log.info("Бронирование с ID: {} отклонено владельцем с ID: {}", booking.getId(), owner.getId());
         }
     }
 
@@ -156,6 +378,24 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void saveApproved(Booking booking) {
+        saveApproved(() -> bookingRepository.saveAndFlush(booking));
+    }
+
+    /**
+     * Пересечения подтверждённых бронирований разных экземпляров сервера отсекает ограничение в БД.
+     * При пакетном подтверждении нарушение относится ко всему пакету: транзакция откатывается целиком.
+     */
+    private void saveApproved(Runnable flush) {
+        try {
+            flush.run();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Подтверждённое бронирование пересекается с другим подтверждённым бронированием: {}",
+                    e.getMessage());
+            throw new NotAvailableException("Вещь уже забронирована на выбранное время");
+        }
+    }
+
     private PageRequest createPageRequest(int from, int size, BookingSort sort) {
         return PageRequest.of(from / size, size, sort.getSortValue());
     }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэши пользователей и вещей. Параметры Caffeine задаются свойствами {@code spring.cache.*}.
+ * Вытеснение из кэша внутри транзакции откладывается до её фиксации, чтобы параллельный запрос
+ * не положил в кэш ещё не изменённые данные.
+ * <p>
+ * Кэши свои у каждого экземпляра сервера, и изменение на одном экземпляре в кэшах других не сбрасывается.
+ * Другой экземпляр может отдавать прежнего пользователя или прежний снимок вещи до истечения
+ * {@code expireAfterWrite} из {@code spring.cache.caffeine.spec} - 10 минут. Исключение - {@code GET /items/{itemId}}:
+ * снимок, версии которого не совпадают с прочитанными из БД для ETag, перечитывается.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Счётчик SQL-запросов на HTTP-запрос: показывает N+1 там, где время ответа ещё не выросло.
+ * Остальные метрики горячего пути (контроллеры, методы репозиториев, ожидание соединения из пула)
+ * собирает Spring Boot; гистограммы включены в application.properties для HTTP-запросов, ожидания соединения
+ * и числа SQL-запросов. У методов репозиториев их нет: на запрос приходится несколько вызовов, и запись в
+ * гистограмму каждого заметна в замере {@code InstrumentationBenchmark}; среднее и максимум остаются.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.metrics.sql-statements", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<SqlStatementMetricsInterceptor> sqlStatementMetricsInterceptor;
+
+    public MetricsConfig(ObjectProvider<SqlStatementMetricsInterceptor> sqlStatementMetricsInterceptor) {
+        this.sqlStatementMetricsInterceptor = sqlStatementMetricsInterceptor;
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public SqlStatementMetricsInterceptor sqlStatementMetricsInterceptor(SqlStatementCounter sqlStatementCounter,
+                                                                         MeterRegistry meterRegistry) {
+        return new SqlStatementMetricsInterceptor(sqlStatementCounter, meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementMetricsInterceptor.getObject());
+    }
+}
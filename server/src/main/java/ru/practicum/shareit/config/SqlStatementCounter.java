@@ -0,0 +1,31 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate в текущем потоке между {@link #start()} и {@link #finish()}.
+ * Вне этого интервала запросы не считаются, поэтому фоновые задачи и старт приложения не влияют на счётчик.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<Integer> count = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Integer current = count.get();
+        if (current != null) {
+            count.set(current + 1);
+        }
+        return sql;
+    }
+
+    public void start() {
+        count.set(0);
+    }
+
+    public int finish() {
+        Integer current = count.get();
+        count.remove();
+        return current == null ? 0 : current;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Записывает число SQL-запросов на один HTTP-запрос в {@code shareit.sql.statements} с тегами метода
+ * и шаблона URI, как у {@code http.server.requests}. Запросы ленивой загрузки при сериализации ответа
+ * тоже попадают в счётчик, так как выполняются до {@link #afterCompletion}. Метрика на каждую пару метода
+ * и шаблона регистрируется один раз, дальше запрос только записывает значение.
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsInterceptor implements HandlerInterceptor {
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        counter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String method = request.getMethod();
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder("shareit.sql.statements")
+                        .description("Количество SQL-запросов на один HTTP-запрос")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .register(meterRegistry))
+                .record(counter.finish());
+    }
+}
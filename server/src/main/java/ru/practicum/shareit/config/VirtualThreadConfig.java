@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка HTTP-запросов в виртуальных потоках ({@code shareit.threads.mode=virtual}). Проект собирается
+ * под Java 11, поэтому исполнитель создаётся через отражение. На JDK без виртуальных потоков (до 21)
+ * приложение в этом режиме не запускается, а не переходит молча на потоки платформы.
+ * <p>
+ * Виртуальный поток, блокирующийся внутри {@code synchronized}, занимает поток-носитель,
+ * поэтому в общем коде вместо {@code synchronized} используются {@link java.util.concurrent.locks.Lock}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        if (Runtime.version().feature() < VIRTUAL_THREADS_FEATURE) {
+            throw new IllegalStateException("Режим shareit.threads.mode=virtual требует Java "
+                    + VIRTUAL_THREADS_FEATURE + " или новее, текущая версия: " + Runtime.version());
+        }
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось создать исполнитель виртуальных потоков", e);
+        }
+        log.info("Запросы обрабатываются в виртуальных потоках");
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class BookingArchivedException extends RuntimeException {
+    public BookingArchivedException(String s) {
+        super(s);
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -94,6 +95,42 @@ public class ExceptionApiHandler {
                 .body(new ErrorResponse(exception.getMessage()));
     }
 
+    @ExceptionHandler(BookingArchivedException.class)
+    public ResponseEntity<ErrorResponse> bookingArchivedException(BookingArchivedException exception) {
+        log.debug(exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
+    @ExceptionHandler(CursorException.class)
+    public ResponseEntity<ErrorResponse> cursorException(CursorException exception) {
+        log.debug(exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
+    @ExceptionHandler(ImportException.class)
+    public ResponseEntity<ErrorResponse> importException(ImportException exception) {
+        log.debug(exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(exception.getMessage()));
+    }
+
+    /**
+     * Запись изменена другим запросом после чтения: версия строки не совпала при сохранении.
+     * Клиент может перечитать данные и повторить запрос.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> optimisticLockingFailure(OptimisticLockingFailureException exception) {
+        log.debug(exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("Данные изменены другим запросом, повторите запрос"));
+    }
+
     @ExceptionHandler(Throwable.class)
     public ResponseEntity<ErrorResponse> runtimeException(RuntimeException exception) {
         log.debug(exception.getMessage());
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ImportException extends RuntimeException {
+    public ImportException(String s) {
+        super(s);
+    }
+}
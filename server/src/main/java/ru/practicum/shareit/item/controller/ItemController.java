@@ -1,12 +1,23 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.ItemImportFormat;
 import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.model.ItemTag;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemVersions;
+import ru.practicum.shareit.util.NdjsonExporter;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,6 +26,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemVersions itemVersions;
 
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -30,23 +42,50 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                               @PathVariable Long itemId) {
-        return itemService.getItemById(itemId, userId);
+                               @PathVariable Long itemId, WebRequest request) {
+        ItemTag tag = itemService.getItemTag(itemId, userId);
+        if (tag == null) {
+            return itemService.getItemById(itemId, userId);
+        }
+        if (request.checkNotModified(tag.getValue())) {
+            return null;
+        }
+        return itemService.getItemById(itemId, userId, tag);
     }
 
     @GetMapping
-    public List<ItemDto> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<List<ItemDto>> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @RequestParam(value = "from", defaultValue = "0") int from,
                                   @RequestParam(value = "size", defaultValue = "100") int size,
-                                  @RequestParam(value = "sort", required = false) ItemSort sort) {
-        return itemService.getItems(userId, from, size, sort);
+                                  @RequestParam(value = "sort", required = false) ItemSort sort,
+                                  @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return itemService.getItemsPage(userId, cursor, size, sort).toResponse();
+        }
+        return ResponseEntity.ok(itemService.getItems(userId, from, size, sort));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return NdjsonExporter.toResponse(itemService.exportItems(userId));
+    }
+
+    @PostMapping(value = "/import", consumes = {ItemImportFormat.CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportReport importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        InputStream body) {
+        return itemService.importItems(userId, ItemImportFormat.of(contentType), body);
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam(value = "text") String text,
                                      @RequestParam(value = "from", defaultValue = "0") int from,
                                      @RequestParam(value = "size", defaultValue = "100") int size,
-                                     @RequestParam(value = "sort", required = false) ItemSort sort) {
+                                     @RequestParam(value = "sort", required = false) ItemSort sort,
+                                     WebRequest request) {
+        if (request.checkNotModified(itemVersions.searchTag())) {
+            return null;
+        }
         return itemService.searchItems(text, from, size, sort);
     }
 
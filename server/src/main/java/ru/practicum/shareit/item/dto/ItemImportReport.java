@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог загрузки вещей: сколько вещей сохранено и сколько строк отклонено. В {@code errors} попадают
+ * первые {@link #MAX_ERRORS} отклонённых строк: номер строки файла, с которой начинается запись, и причина.
+ */
+@Data
+public class ItemImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private long imported;
+    private long rejected;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void accept(int count) {
+        imported += count;
+    }
+
+    public void reject(long line, String error) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, error));
+        }
+    }
+
+    @Data
+    public static class RowError {
+        private final long line;
+        private final String error;
+    }
+}
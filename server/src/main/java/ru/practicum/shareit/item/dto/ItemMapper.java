@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSnapshot;
 
 @UtilityClass
 public class ItemMapper {
@@ -19,6 +20,19 @@ public class ItemMapper {
         );
     }
 
+    public static ItemDto snapshotToDto(ItemSnapshot item) {
+        return new ItemDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                null,
+                null,
+                null,
+                item.getRequestId()
+        );
+    }
+
     public static Item dtoToItem(ItemDto itemDto) {
         return new Item(
                 itemDto.getId(),
@@ -26,7 +40,9 @@ public class ItemMapper {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 null,
-                null
+                null,
+                0,
+                0
         );
     }
 }
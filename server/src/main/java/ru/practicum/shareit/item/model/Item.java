@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -20,7 +21,8 @@ import javax.persistence.*;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Long id;
 
@@ -40,4 +42,16 @@ public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    @Version
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    /**
+     * Версия содержимого ответа о вещи помимо её полей: отзывов, бронирований, имён их авторов.
+     * Увеличивается массовыми UPDATE, поэтому Hibernate её не записывает и не проверяет.
+     */
+    @Column(name = "content_version", insertable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private long contentVersion;
 }
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Последнее и следующее подтверждённые бронирования вещи на момент {@code refreshedAt}. Сводка верна,
+ * пока не наступило начало следующего бронирования: до этого момента ни одно подтверждённое бронирование
+ * не переходит из будущих в прошлые. Сводка без {@code refreshedAt} ещё не вычислялась.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "item_booking_summaries")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+
+    @Version
+    private long version;
+
+    public ItemBookingSummary(Long itemId, LocalDateTime refreshedAt) {
+        this.itemId = itemId;
+        this.refreshedAt = refreshedAt;
+    }
+
+    public boolean isStale(LocalDateTime now) {
+        return refreshedAt == null || nextStart != null && !nextStart.isAfter(now);
+    }
+
+    public boolean sameBookings(ItemBookingSummary other) {
+        return Objects.equals(lastBookingId, other.lastBookingId)
+                && Objects.equals(lastBookerId, other.lastBookerId)
+                && Objects.equals(lastStart, other.lastStart)
+                && Objects.equals(nextBookingId, other.nextBookingId)
+                && Objects.equals(nextBookerId, other.nextBookerId)
+                && Objects.equals(nextStart, other.nextStart);
+    }
+
+    public void copyBookings(ItemBookingSummary other) {
+        lastBookingId = other.lastBookingId;
+        lastBookerId = other.lastBookerId;
+        lastStart = other.lastStart;
+        nextBookingId = other.nextBookingId;
+        nextBookerId = other.nextBookerId;
+        nextStart = other.nextStart;
+        refreshedAt = other.refreshedAt;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.ImportException;
+
+import java.util.Arrays;
+
+/**
+ * Формат тела {@code POST /items/import}, определяется по {@code Content-Type}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ItemImportFormat {
+
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    public static ItemImportFormat of(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(contentType))
+                .findFirst()
+                .orElseThrow(() -> new ImportException("Неподдерживаемый формат загрузки: " + contentType));
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Неизменяемый снимок вещи для кэша {@code items}: один объект читают все потоки, поэтому в нём нет
+ * сущностей Hibernate и ленивых связей. Для бронирований и отзывов {@link #toItem()} каждый раз строит
+ * новую отсоединённую вещь; запрос в ней содержит только ID.
+ */
+@Value
+public class ItemSnapshot {
+
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long ownerId;
+    String ownerName;
+    String ownerEmail;
+    Long requestId;
+    long version;
+    long contentVersion;
+
+    public static ItemSnapshot of(Item item) {
+        return new ItemSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getOwner().getName(), item.getOwner().getEmail(),
+                item.getRequest() == null ? null : item.getRequest().getId(), item.getVersion(),
+                item.getContentVersion());
+    }
+
+    public Item toItem() {
+        ItemRequest request = null;
+        if (requestId != null) {
+            request = new ItemRequest();
+            request.setId(requestId);
+        }
+        return new Item(id, name, description, available, new User(ownerId, ownerName, ownerEmail, 0), request,
+                version, contentVersion);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+
+import java.util.Objects;
+
+/**
+ * Версии вещи, прочитанные из БД для ETag ответа {@code GET /items/{itemId}}. Тело ответа строится по этому же
+ * чтению: снимок из кэша {@code items} используется, только если его версии совпадают, а бронирования владельцу
+ * показываются из той же сводки. Поэтому ETag не бывает новее тела.
+ */
+@Value
+public class ItemTag {
+
+    long version;
+    long contentVersion;
+    Long ownerId;
+    /**
+     * Сводка бронирований; {@code null}, если вещь запрашивает не владелец.
+     */
+    ItemBookingSummary summary;
+
+    public String getValue() {
+        String tag = version + "-" + contentVersion;
+        if (summary == null) {
+            return tag;
+        }
+        return tag + "-" + Objects.toString(summary.getNextStart(), "");
+    }
+
+    public boolean matches(ItemSnapshot item) {
+        return item.getVersion() == version && item.getContentVersion() == contentVersion;
+    }
+}
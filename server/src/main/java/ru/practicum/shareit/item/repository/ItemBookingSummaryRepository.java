@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId IN :itemIds ORDER BY s.itemId")
+    List<ItemBookingSummary> findForUpdate(Collection<Long> itemIds);
+
+    List<ItemBookingSummary> findByItemIdGreaterThanOrderByItemId(Long itemId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.refreshedAt = NULL, s.version = s.version + 1 " +
+            "WHERE s.itemId IN (SELECT b.item.id FROM BookingRecord b WHERE b.booker.id = :bookerId AND b.status = :status)")
+    int markStaleByBooker(Long bookerId, BookingStatus status);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.refreshedAt = NULL, s.version = s.version + 1 WHERE s.itemId IN :itemIds")
+    int markStale(Collection<Long> itemIds);
+
+    @Query("SELECT COUNT(i) FROM Item i " +
+            "WHERE NOT EXISTS (SELECT s FROM ItemBookingSummary s WHERE s.itemId = i.id)")
+    long countMissing();
+}
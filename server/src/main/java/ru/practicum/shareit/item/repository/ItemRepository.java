@@ -1,26 +1,134 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+import ru.practicum.shareit.util.NdjsonExporter;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    Page<Item> findByOwnerId(Long userId, Pageable pageable);
+    @Query("SELECT i AS item, s AS summary FROM Item i " +
+            "LEFT JOIN ItemBookingSummary s ON s.itemId = i.id " +
+            "WHERE i.owner.id = :ownerId")
+    List<ItemWithSummary> findWithSummaryByOwnerId(Long ownerId, Pageable pageable);
 
-    Page<Item> findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(String name, String description, Pageable pageable);
+    /**
+     * Поиск по шаблону LIKE, построенному {@link ru.practicum.shareit.item.service.ItemSearchEngine#containsPattern}.
+     */
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = TRUE " +
+            "AND (UPPER(i.name) LIKE UPPER(:pattern) ESCAPE '\\' " +
+            "OR UPPER(i.description) LIKE UPPER(:pattern) ESCAPE '\\')")
+    List<Item> searchAvailable(String pattern, Pageable pageable);
 
-    List<Item> findByRequestId(Long requestId);
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available " +
+            "AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "OR i.name ILIKE :pattern ESCAPE '\\' " +
+            "OR i.description ILIKE :pattern ESCAPE '\\') " +
+            "ORDER BY CASE WHEN :ranked THEN ts_rank(i.search_vector, plainto_tsquery('simple', :text)) END DESC, " +
+            "CASE WHEN :descending THEN i.item_id END DESC, " +
+            "i.item_id",
+            nativeQuery = true)
+    List<Item> searchAvailableFullText(String text, String pattern, boolean ranked, boolean descending,
+                                       Pageable pageable);
+
+    Slice<Item> findByAvailableTrue(Pageable pageable);
+
+    /**
+     * Вещи, добавленные в ответ на запросы, сразу в виде DTO: владелец для ответа не нужен и не загружается.
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.request.id IN :requestIds")
+    List<ItemDto> findDtoByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "FROM Item i LEFT JOIN i.request r WHERE i.owner.id = :ownerId ORDER BY i.id")
+    Stream<ItemDto> streamDtoByOwnerId(Long ownerId);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.id IN :itemIds")
+    List<Item> findWithOwnerByIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT i.version AS version, i.contentVersion AS contentVersion, i.owner.id AS ownerId " +
+            "FROM Item i WHERE i.id = :itemId")
+    Optional<ItemVersion> findVersionById(Long itemId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.contentVersion = i.contentVersion + 1 WHERE i.id = :itemId")
+    void incrementContentVersion(Long itemId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.contentVersion = i.contentVersion + 1 WHERE i.id IN :itemIds")
+    void incrementContentVersions(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.contentVersion = i.contentVersion + 1 " +
+            "WHERE i.id IN (SELECT c.item.id FROM Comment c WHERE c.author.id = :userId)")
+    void incrementContentVersionByCommentAuthor(Long userId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.contentVersion = i.contentVersion + 1 " +
+            "WHERE i.id IN (SELECT b.item.id FROM BookingRecord b WHERE b.booker.id = :userId)")
+    void incrementContentVersionByBooker(Long userId);
 
     default Item getExistingItem(Long itemId) {
         return findById(itemId).orElseThrow(() -> {
             throw new ItemNotFoundException("Предмет с ID: " + itemId + " не существует.");
         });
     }
+
+    /**
+     * Снимок вещи из кэша {@code items}. Кэш сбрасывается после фиксации изменения вещи или её владельца,
+     * для редактирования используется {@link #getExistingItem(Long)}.
+     */
+    @Cacheable(cacheNames = "items", key = "#itemId", sync = true)
+    default ItemSnapshot getCachedItem(Long itemId) {
+        return ItemSnapshot.of(getExistingItem(itemId));
+    }
+
+    /**
+     * Читает снимок из БД и заменяет им значение в кэше {@code items}: закэшированный снимок отстал от версий,
+     * прочитанных для ETag.
+     */
+    @CachePut(cacheNames = "items", key = "#itemId")
+    default ItemSnapshot refreshCachedItem(Long itemId) {
+        return ItemSnapshot.of(getExistingItem(itemId));
+    }
+
+    interface ItemVersion {
+        long getVersion();
+
+        long getContentVersion();
+
+        Long getOwnerId();
+    }
+
+    interface ItemWithSummary {
+        Item getItem();
+
+        ItemBookingSummary getSummary();
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Условия выборки вещей для постраничной выдачи по курсору.
+ */
+@UtilityClass
+public class ItemSpecifications {
+
+    public static Specification<Item> byOwner(Long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("owner").get("id"), ownerId);
+    }
+}
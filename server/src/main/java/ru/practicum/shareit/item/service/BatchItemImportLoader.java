@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Загрузка пакетными INSERT JDBC, по одному пакету на порцию. Запрос ID написан для H2, где {@code COPY} нет.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.items.import.loader", havingValue = "batch")
+public class BatchItemImportLoader implements ItemImportLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void load(Long ownerId, List<ItemDto> items, LocalDateTime now) {
+        ItemImportLoader.assignIds(items, jdbcTemplate.queryForList(
+                "SELECT NEXT VALUE FOR items_seq FROM SYSTEM_RANGE(1, ?)", Long.class,
+                ItemImportLoader.idBlocks(items.size())));
+
+        jdbcTemplate.batchUpdate("INSERT INTO items (item_id, name, description, is_available, owner_id, request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", items, items.size(), (statement, item) -> {
+            statement.setLong(1, item.getId());
+            statement.setString(2, item.getName());
+            statement.setString(3, item.getDescription());
+            statement.setBoolean(4, item.getAvailable());
+            statement.setLong(5, ownerId);
+            if (item.getRequestId() != null) {
+                statement.setLong(6, item.getRequestId());
+            } else {
+                statement.setNull(6, Types.BIGINT);
+            }
+        });
+        Timestamp refreshedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate("INSERT INTO item_booking_summaries (item_id, refreshed_at) VALUES (?, ?)",
+                items, items.size(), (statement, item) -> {
+                    statement.setLong(1, item.getId());
+                    statement.setTimestamp(2, refreshedAt);
+                });
+    }
+}
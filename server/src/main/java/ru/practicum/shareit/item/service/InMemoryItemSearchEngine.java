@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по индексу в памяти процесса. Индекс строится при старте из {@link ItemRepository}
+ * и обновляется после фиксации транзакций, изменивших или удаливших вещь. Страница ID берётся из индекса,
+ * сами вещи загружаются одним запросом {@code findAllById}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int BUILD_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final Set<Long> updatedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile ItemSearchIndex index = new ItemSearchIndex();
+    private volatile boolean building;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        Gauge.builder("shareit.search.index.documents", this, engine -> engine.index.documentCount())
+                .description("Количество доступных вещей в индексе поиска")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.grams", this, engine -> engine.index.gramCount())
+                .description("Количество различных триграмм в индексе поиска")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.memory", this, engine -> engine.index.estimateMemoryBytes())
+                .description("Оценка занимаемой индексом поиска памяти")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.memory.per100k", this, engine -> engine.memoryPer100kItems())
+                .description("Оценка памяти индекса поиска в пересчёте на 100 000 вещей")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        building = true;
+        List<ItemSearchIndex.Document> documents = new ArrayList<>();
+        Slice<Item> slice = itemRepository.findByAvailableTrue(PageRequest.of(0, BUILD_PAGE_SIZE, Sort.by("id")));
+        slice.forEach(item -> documents.add(toDocument(item)));
+        while (slice.hasNext()) {
+            slice = itemRepository.findByAvailableTrue(slice.nextPageable());
+            slice.forEach(item -> documents.add(toDocument(item)));
+        }
+        index = ItemSearchIndex.build(documents);
+        building = false;
+
+        Set<Long> updatedIds = new HashSet<>(updatedDuringBuild);
+        updatedDuringBuild.removeAll(updatedIds);
+        itemRepository.findAllById(updatedIds).forEach(item -> {
+            updatedIds.remove(item.getId());
+            apply(item);
+        });
+        updatedIds.forEach(this::remove);
+        log.info("Индекс поиска построен: {} вещей, {} триграмм", index.documentCount(), index.gramCount());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size, ItemSort sort) {
+        List<Long> ids = index.search(text, from / size * size, size, sort == ItemSort.ID_DESC);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        return itemRepository.findAllById(ids)
+                .stream()
+                .sorted(Comparator.comparing(item -> positions.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        Item snapshot = new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), null, null,
+                item.getVersion(), 0);
+        afterCommit(() -> apply(snapshot));
+    }
+
+    /**
+     * Вещи пользователя удаляются каскадно в БД, поэтому их ID читаются до удаления,
+     * а из индекса убираются после фиксации транзакции.
+     */
+    @Override
+    public void ownerDeleted(Long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
+        if (!itemIds.isEmpty()) {
+            afterCommit(() -> itemIds.forEach(this::remove));
+        }
+    }
+
+    private double memoryPer100kItems() {
+        ItemSearchIndex current = index;
+        int documents = current.documentCount();
+        return documents == 0 ? 0 : current.estimateMemoryBytes() * 100_000.0 / documents;
+    }
+
+    private void apply(Item item) {
+        if (building) {
+            updatedDuringBuild.add(item.getId());
+        }
+        index.update(item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private void remove(Long itemId) {
+        if (building) {
+            updatedDuringBuild.add(itemId);
+        }
+        index.update(itemId, null, null, false);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ItemSearchIndex.Document toDocument(Item item) {
+        return new ItemSearchIndex.Document(item.getId(), item.getName(), item.getDescription());
+    }
+}
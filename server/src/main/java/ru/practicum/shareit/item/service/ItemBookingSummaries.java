@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRecordRepository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводки последнего и следующего бронирования вещей ({@link ItemBookingSummary}) для ответов владельцу.
+ * <p>
+ * При подтверждении бронирования сводки его вещей пересчитываются в той же транзакции под блокировкой строк.
+ * Отклонение меняет только ожидающие бронирования, поэтому сводки не затрагивает. Когда наступает начало
+ * следующего бронирования, сводка устаревает и пересчитывается при первом чтении. Такая запись идёт в отдельной
+ * транзакции с проверкой версии: если сводку тем временем изменило подтверждение, результат чтения
+ * не сохраняется, но в ответ попадает.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaries {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRecordRepository bookingRecordRepository;
+    private final TransactionTemplate refreshTransaction;
+
+    public ItemBookingSummaries(ItemBookingSummaryRepository summaryRepository,
+                                BookingRecordRepository bookingRecordRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRecordRepository = bookingRecordRepository;
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Сводки вещей по ID, устаревшие пересчитываются.
+     */
+    public Map<Long, ItemBookingSummary> find(Collection<Long> itemIds) {
+        return resolve(itemIds, summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity())));
+    }
+
+    /**
+     * Сводки, уже прочитанные вместе с вещами: пересчитываются только устаревшие и отсутствующие.
+     */
+    public Map<Long, ItemBookingSummary> resolve(Collection<Long> itemIds, Map<Long, ItemBookingSummary> loaded) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> staleIds = itemIds.stream()
+                .filter(itemId -> !loaded.containsKey(itemId) || loaded.get(itemId).isStale(now))
+                .collect(Collectors.toList());
+        if (staleIds.isEmpty()) {
+            return loaded;
+        }
+
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>(loaded);
+        Map<Long, ItemBookingSummary> computed = compute(staleIds, now);
+        staleIds.forEach(itemId -> {
+            ItemBookingSummary summary = loaded.get(itemId);
+            if (summary == null) {
+                summary = new ItemBookingSummary(itemId, now);
+            }
+            summary.copyBookings(computed.get(itemId));
+            summaries.put(itemId, summary);
+        });
+        log.debug("Пересчитаны устаревшие сводки бронирований вещей: {}", staleIds);
+
+        try {
+            refreshTransaction.executeWithoutResult(status -> staleIds.forEach(itemId ->
+                    summaryRepository.save(summaries.get(itemId))));
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            log.debug("Сводки бронирований вещей {} изменены параллельно: {}", staleIds, e.getMessage());
+        }
+        return summaries;
+    }
+
+    /**
+     * Подтверждены бронирования вещей. Вызывается в транзакции подтверждения после записи статуса.
+     */
+    public void bookingsApproved(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> locked = summaryRepository.findForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        compute(itemIds, now).forEach((itemId, computed) -> {
+            ItemBookingSummary summary = locked.get(itemId);
+            if (summary == null) {
+                summaryRepository.save(computed);
+            } else {
+                summary.copyBookings(computed);
+            }
+        });
+    }
+
+    public void itemAdded(Long itemId) {
+        summaryRepository.save(new ItemBookingSummary(itemId, LocalDateTime.now()));
+    }
+
+    /**
+     * Удаляется пользователь вместе с его бронированиями: сводки вещей, которые он бронировал,
+     * пересчитываются при следующем чтении. Вызывается до удаления.
+     */
+    public void bookerDeleted(Long userId) {
+        summaryRepository.markStaleByBooker(userId, BookingStatus.APPROVED);
+    }
+
+    /**
+     * Сводки вещей разошлись с бронированиями: они пересчитываются при следующем чтении. Выполняется
+     * в отдельной транзакции.
+     */
+    public void markStale(Collection<Long> itemIds) {
+        refreshTransaction.executeWithoutResult(status -> summaryRepository.markStale(itemIds));
+    }
+
+    /**
+     * Сводки, вычисленные по бронированиям на момент {@code now}. Последнее бронирование может быть уже
+     * в архиве, поэтому читаются обе таблицы.
+     */
+    Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = itemIds.stream()
+                .collect(Collectors.toMap(Function.identity(), itemId -> new ItemBookingSummary(itemId, now)));
+        for (BookingRecordRepository.BookingSlot slot : bookingRecordRepository.findLastAndNextSlots(itemIds, now,
+                BookingStatus.APPROVED)) {
+            ItemBookingSummary summary = summaries.get(slot.getItemId());
+            if (slot.getStart().isBefore(now)) {
+                summary.setLastBookingId(slot.getBookingId());
+                summary.setLastBookerId(slot.getBookerId());
+                summary.setLastStart(slot.getStart());
+            } else {
+                summary.setNextBookingId(slot.getBookingId());
+                summary.setNextBookerId(slot.getBookerId());
+                summary.setNextStart(slot.getStart());
+            }
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка сводок бронирований вещей: {@code GET /actuator/bookingsummaries} заново вычисляет каждую
+ * сводку по таблице бронирований и сравнивает с сохранённой. Устаревшие сводки не сравниваются,
+ * они будут пересчитаны при чтении. Подтверждения во время проверки могут дать ложные расхождения.
+ * {@code POST /actuator/bookingsummaries} выполняет ту же проверку и помечает разошедшиеся сводки устаревшими,
+ * чтобы они пересчитались при следующем чтении. Ложное расхождение при этом стоит только лишнего пересчёта.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "bookingsummaries")
+public class ItemBookingSummaryEndpoint {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED = 100;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaries itemBookingSummaries;
+
+    @ReadOperation
+    public Report check() {
+        return scan(false);
+    }
+
+    @WriteOperation
+    public Report repair() {
+        return scan(true);
+    }
+
+    private Report scan(boolean repair) {
+        LocalDateTime now = LocalDateTime.now();
+        long checked = 0;
+        long stale = 0;
+        long mismatched = 0;
+        List<Mismatch> mismatches = new ArrayList<>();
+
+        List<ItemBookingSummary> chunk = summaryRepository.findByItemIdGreaterThanOrderByItemId(0L,
+                PageRequest.of(0, CHUNK_SIZE));
+        while (!chunk.isEmpty()) {
+            Map<Long, ItemBookingSummary> expected = itemBookingSummaries.compute(chunk.stream()
+                    .map(ItemBookingSummary::getItemId)
+                    .collect(Collectors.toList()), now);
+            List<Long> mismatchedIds = new ArrayList<>();
+            for (ItemBookingSummary summary : chunk) {
+                checked++;
+                if (summary.isStale(now)) {
+                    stale++;
+                } else if (!summary.sameBookings(expected.get(summary.getItemId()))) {
+                    mismatched++;
+                    mismatchedIds.add(summary.getItemId());
+                    if (mismatches.size() < MAX_REPORTED) {
+                        mismatches.add(new Mismatch(summary.getItemId(), summary, expected.get(summary.getItemId())));
+                    }
+                }
+            }
+            if (repair && !mismatchedIds.isEmpty()) {
+                itemBookingSummaries.markStale(mismatchedIds);
+            }
+            chunk = summaryRepository.findByItemIdGreaterThanOrderByItemId(chunk.get(chunk.size() - 1).getItemId(),
+                    PageRequest.of(0, CHUNK_SIZE));
+        }
+        return new Report(checked, stale, summaryRepository.countMissing(), mismatched, mismatches);
+    }
+
+    @Value
+    public static class Report {
+        long checked;
+        long stale;
+        long missing;
+        long mismatched;
+        List<Mismatch> mismatches;
+    }
+
+    @Value
+    public static class Mismatch {
+        Long itemId;
+        ItemBookingSummary stored;
+        ItemBookingSummary expected;
+    }
+}
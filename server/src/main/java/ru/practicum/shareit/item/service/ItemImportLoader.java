@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Запись проверенной порции загружаемых вещей в БД в обход Hibernate.
+ * Реализация выбирается свойством {@code shareit.items.import.loader}.
+ */
+public interface ItemImportLoader {
+
+    /**
+     * Сколько ID даёт одно значение {@code items_seq}: совпадает с {@code allocationSize} в
+     * {@link ru.practicum.shareit.item.model.Item}, поэтому блоки загрузки и Hibernate не пересекаются.
+     */
+    int ID_BLOCK_SIZE = 50;
+
+    /**
+     * Присваивает вещам ID и сохраняет их вместе со сводками бронирований, вычисленными на {@code now}
+     * (у новой вещи бронирований нет). Вызывается в транзакции.
+     */
+    void load(Long ownerId, List<ItemDto> items, LocalDateTime now);
+
+    static int idBlocks(int count) {
+        return (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+    }
+
+    /**
+     * Раздаёт ID блоками по {@link #ID_BLOCK_SIZE} от каждого значения последовательности, как оптимизатор
+     * pooled-lo Hibernate.
+     */
+    static void assignIds(List<ItemDto> items, List<Long> blockStarts) {
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(blockStarts.get(i / ID_BLOCK_SIZE) + i % ID_BLOCK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ImportException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemImportFormat;
+import ru.practicum.shareit.util.CreateValidation;
+import ru.practicum.shareit.util.CsvReader;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Загрузка вещей владельца из CSV или NDJSON. Тело читается потоком и обрабатывается порциями по
+ * {@code shareit.items.import.batch-size} строк, поэтому память не зависит от размера файла.
+ * <p>
+ * Строка проверяется теми же правилами {@link CreateValidation}, что и {@code POST /items} в шлюзе, и
+ * ограничениями колонок {@code items}. Названия и ID запросов порции проверяются по БД двумя запросами на
+ * порцию. Прошедшие проверку строки записывает {@link ItemImportLoader}, каждую порцию в своей транзакции:
+ * уже сохранённые порции остаются, если загрузка прервётся. Отклонённые строки попадают в
+ * {@link ItemImportReport} с номером строки файла.
+ * <p>
+ * CSV начинается со строки заголовка с колонками {@code name}, {@code description}, {@code available} и
+ * {@code requestId} в любом порядке; NDJSON - по объекту {@link ItemDto} на строку. Кодировка - UTF-8.
+ * <p>
+ * Метрики: {@code shareit.items.import.rows} с тегом {@code result} ({@code imported} или {@code rejected})
+ * и {@code shareit.items.import.chunks} - время записи порции.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+
+    private static final int NAME_LENGTH = 255;
+    private static final int DESCRIPTION_LENGTH = 500;
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "available", "requestId");
+
+    private final ObjectReader itemReader;
+    private final Validator validator;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ItemImportLoader loader;
+    private final ItemSearchEngine itemSearchEngine;
+    private final TransactionTemplate chunkTransaction;
+    private final int batchSize;
+
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final Timer chunkTimer;
+
+    public ItemImporter(ObjectMapper objectMapper, Validator validator, NamedParameterJdbcTemplate jdbcTemplate,
+                        ItemImportLoader loader, ItemSearchEngine itemSearchEngine,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                        @Value("${shareit.items.import.batch-size:5000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("shareit.items.import.batch-size должен быть положительным: "
+                    + batchSize);
+        }
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loader = loader;
+        this.itemSearchEngine = itemSearchEngine;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.importedRows = Counter.builder("shareit.items.import.rows")
+                .tag("result", "imported")
+                .description("Строки загрузки вещей")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("shareit.items.import.rows")
+                .tag("result", "rejected")
+                .description("Строки загрузки вещей")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("shareit.items.import.chunks")
+                .description("Запись одной порции загружаемых вещей")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws ImportException если заголовок CSV не разобран; до этого ни одна вещь не сохраняется
+     */
+    public ItemImportReport importItems(Long ownerId, ItemImportFormat format, InputStream body) {
+        ItemImportReport report = new ItemImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            RowSource rows = format == ItemImportFormat.CSV
+                    ? new CsvRows(new CsvReader(reader))
+                    : new NdjsonRows(reader);
+            List<Row> chunk = new ArrayList<>(batchSize);
+            Row row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    loadChunk(ownerId, chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                loadChunk(ownerId, chunk, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report;
+    }
+
+    private void loadChunk(Long ownerId, List<Row> chunk, ItemImportReport report) {
+        List<Row> accepted = check(chunk);
+        for (Row row : chunk) {
+            if (row.error != null) {
+                report.reject(row.line, row.error);
+            }
+        }
+        rejectedRows.increment(chunk.size() - accepted.size());
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<ItemDto> items = accepted.stream().map(row -> row.item).collect(Collectors.toList());
+        try {
+            chunkTimer.record(() -> chunkTransaction.executeWithoutResult(status -> {
+                loader.load(ownerId, items, LocalDateTime.now());
+                items.forEach(item -> itemSearchEngine.index(new Item(item.getId(), item.getName(),
+                        item.getDescription(), item.getAvailable(), null, null, 0, 0)));
+            }));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Порция загрузки вещей пользователя с ID: {} со строки {} не сохранена: {}", ownerId,
+                    accepted.get(0).line, e.getMostSpecificCause().getMessage());
+            accepted.forEach(row -> report.reject(row.line,
+                    "Не сохранено: во время загрузки появилась вещь с тем же названием или удалён запрос"));
+            rejectedRows.increment(accepted.size());
+            return;
+        }
+        report.accept(items.size());
+        importedRows.increment(items.size());
+    }
+
+    /**
+     * Отмечает ошибки в строках порции и возвращает строки без ошибок в порядке файла.
+     */
+    private List<Row> check(List<Row> chunk) {
+        Set<String> names = new HashSet<>();
+        Set<Long> requestIds = new HashSet<>();
+        for (Row row : chunk) {
+            if (row.error == null) {
+                row.error = validate(row.item);
+            }
+            if (row.error == null && !names.add(row.item.getName())) {
+                row.error = "Название уже встречалось в загрузке: " + row.item.getName();
+            }
+            if (row.error == null && row.item.getRequestId() != null) {
+                requestIds.add(row.item.getRequestId());
+            }
+        }
+
+        Set<String> existingNames = names.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT name FROM items WHERE name IN (:names)", new MapSqlParameterSource("names", names),
+                String.class));
+        Set<Long> existingRequestIds = requestIds.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT request_id FROM requests WHERE request_id IN (:ids)",
+                new MapSqlParameterSource("ids", requestIds), Long.class));
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.error != null) {
+                continue;
+            }
+            if (existingNames.contains(row.item.getName())) {
+                row.error = "Вещь с названием уже существует: " + row.item.getName();
+            } else if (row.item.getRequestId() != null && !existingRequestIds.contains(row.item.getRequestId())) {
+                row.error = "Запрос с ID: " + row.item.getRequestId() + " не существует.";
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private String validate(ItemDto item) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(item, CreateValidation.class);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (item.getName().length() > NAME_LENGTH) {
+            return "Название предмета длиннее " + NAME_LENGTH + " символов";
+        }
+        if (item.getDescription().length() > DESCRIPTION_LENGTH) {
+            return "Описание предмета длиннее " + DESCRIPTION_LENGTH + " символов";
+        }
+        return null;
+    }
+
+    private static final class Row {
+        private final long line;
+        private final ItemDto item;
+        private String error;
+
+        private Row(long line, ItemDto item, String error) {
+            this.line = line;
+            this.item = item;
+            this.error = error;
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * Следующая строка файла или {@code null} в конце; строка, которую не удалось разобрать, приходит
+         * с ошибкой.
+         */
+        Row next() throws IOException;
+    }
+
+    private class NdjsonRows implements RowSource {
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                ItemDto item = itemReader.readValue(text);
+                if (item == null) {
+                    return new Row(line, null, "Ожидается объект вещи");
+                }
+                item.setId(null);
+                return new Row(line, item, null);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "Некорректный JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static class CsvRows implements RowSource {
+        private final CsvReader reader;
+        private final int[] columns;
+        private boolean finished;
+
+        CsvRows(CsvReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new ImportException("Нет строки заголовка CSV");
+            }
+            this.columns = new int[header.size()];
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).replace("\uFEFF", "").trim();
+                columns[i] = CSV_COLUMNS.stream()
+                        .filter(column -> column.equalsIgnoreCase(name))
+                        .findFirst()
+                        .map(CSV_COLUMNS::indexOf)
+                        .orElseThrow(() -> new ImportException("Неизвестная колонка CSV: " + name +
+                                ". Ожидаются колонки " + String.join(", ", CSV_COLUMNS)));
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (finished) {
+                return null;
+            }
+            List<String> fields;
+            try {
+                do {
+                    fields = reader.next();
+                } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            } catch (ImportException e) {
+                finished = true;
+                return new Row(reader.getRecordLine(), null, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            long line = reader.getRecordLine();
+            if (fields.size() != columns.length) {
+                return new Row(line, null, "Ожидается полей: " + columns.length + ", получено: " + fields.size());
+            }
+            ItemDto item = new ItemDto();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i);
+                switch (columns[i]) {
+                    case 0:
+                        item.setName(value.isEmpty() ? null : value);
+                        break;
+                    case 1:
+                        item.setDescription(value.isEmpty() ? null : value);
+                        break;
+                    case 2:
+                        String available = value.trim().toLowerCase(Locale.ROOT);
+                        if (available.equals("true") || available.equals("false")) {
+                            item.setAvailable(Boolean.valueOf(available));
+                        } else if (!available.isEmpty()) {
+                            return new Row(line, null, "Статус доступности должен быть true или false: " + value);
+                        }
+                        break;
+                    default:
+                        if (!value.isBlank()) {
+                            try {
+                                item.setRequestId(Long.valueOf(value.trim()));
+                            } catch (NumberFormatException e) {
+                                return new Row(line, null, "Некорректный ID запроса: " + value);
+                            }
+                        }
+                }
+            }
+            return new Row(line, item, null);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSort;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту в названии или описании.
+ * Реализация выбирается свойством {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, int from, int size, ItemSort sort);
+
+    /**
+     * Шаблон LIKE для поиска подстроки с экранированием через {@code \}: символы {@code %} и {@code _}
+     * в тексте запроса ищутся как есть, а не совпадают с любой вещью.
+     */
+    static String containsPattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Сообщает о добавлении или изменении вещи. Реализации, которые ищут прямо в БД, ничего не делают.
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * Сообщает об удалении пользователя вместе с его вещами. Вызывается до удаления.
+     */
+    default void ownerDeleted(Long userId) {
+    }
+}
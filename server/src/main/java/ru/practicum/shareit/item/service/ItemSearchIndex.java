@@ -0,0 +1,385 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Инвертированный индекс доступных вещей: триграмма названия или описания (в нижнем регистре)
+ * отображается в упорядоченный список ID вещей. Запросы короче триграммы просматривают сами вещи,
+ * упорядоченные по ID, до заполнения страницы.
+ * <p>
+ * Список ID хранится сегментами не длиннее {@link #SEGMENT_SIZE}. Сегменты и списки не изменяются после
+ * публикации: обновление копирует один сегмент и массив ссылок на сегменты, а не все ID триграммы, и атомарно
+ * заменяет список в {@link ConcurrentHashMap}, поэтому чтение идёт без блокировок. Запись по одной вещи
+ * сериализуется блокировкой из набора, выбираемой по ID. Оценка занимаемой памяти меняется вместе
+ * с индексом и не требует его обхода.
+ */
+public final class ItemSearchIndex {
+
+    static final int SEGMENT_SIZE = 512;
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOCK_STRIPES = 64;
+    private static final long[] EMPTY = new long[0];
+
+    private static final long POSTING_BYTES = 32 + 40 + 16 + 16;
+    private static final long SEGMENT_BYTES = 16 + 8;
+    private static final long DOCUMENT_BYTES = 32 + 16 + 24 + 2 * 40;
+
+    private final Map<String, Posting> postings;
+    private final NavigableMap<Long, Document> documents;
+    private final LongAdder memoryBytes = new LongAdder();
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    public ItemSearchIndex() {
+        this(new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>(), 0);
+    }
+
+    private ItemSearchIndex(Map<String, Posting> postings, NavigableMap<Long, Document> documents, long memoryBytes) {
+        this.postings = postings;
+        this.documents = documents;
+        this.memoryBytes.add(memoryBytes);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Строит индекс целиком без поэлементного копирования массивов.
+     */
+    public static ItemSearchIndex build(Iterable<Document> availableDocuments) {
+        Map<String, LongList> builder = new HashMap<>();
+        NavigableMap<Long, Document> documents = new ConcurrentSkipListMap<>();
+        long memoryBytes = 0;
+        for (Document document : availableDocuments) {
+            if (documents.put(document.getId(), document) == null) {
+                memoryBytes += document.memoryBytes();
+            }
+            for (String gram : document.grams()) {
+                builder.computeIfAbsent(gram, key -> new LongList()).add(document.getId());
+            }
+        }
+        Map<String, Posting> postings = new ConcurrentHashMap<>(builder.size());
+        for (Map.Entry<String, LongList> entry : builder.entrySet()) {
+            Posting posting = Posting.of(entry.getValue().toSortedArray());
+            postings.put(entry.getKey(), posting);
+            memoryBytes += posting.memoryBytes(entry.getKey());
+        }
+        return new ItemSearchIndex(postings, documents, memoryBytes);
+    }
+
+    /**
+     * Добавляет, обновляет или удаляет (если вещь недоступна) вещь в индексе.
+     */
+    public void update(long itemId, String name, String description, boolean available) {
+        Lock lock = locks[Long.hashCode(itemId * 0x9E3779B97F4A7C15L) & (LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            Document previous = documents.get(itemId);
+            Document current = available ? new Document(itemId, name, description) : null;
+            Set<String> previousGrams = previous == null ? Set.of() : previous.grams();
+            Set<String> currentGrams = current == null ? Set.of() : current.grams();
+
+            for (String gram : currentGrams) {
+                if (!previousGrams.contains(gram)) {
+                    postings.compute(gram, (key, posting) -> replace(key, posting,
+                            posting == null ? Posting.of(new long[]{itemId}) : posting.insert(itemId)));
+                }
+            }
+            if (current == null) {
+                documents.remove(itemId);
+            } else {
+                documents.put(itemId, current);
+                memoryBytes.add(current.memoryBytes());
+            }
+            if (previous != null) {
+                memoryBytes.add(-previous.memoryBytes());
+            }
+            for (String gram : previousGrams) {
+                if (!currentGrams.contains(gram)) {
+                    postings.computeIfPresent(gram, (key, posting) -> replace(key, posting, posting.remove(itemId)));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает ID вещей, в названии или описании которых встречается текст, без учёта регистра.
+     */
+    public List<Long> search(String text, int offset, int limit, boolean descending) {
+        String query = text.toLowerCase(Locale.ROOT);
+        if (query.length() < GRAM_LENGTH) {
+            return scan(query, offset, limit, descending);
+        }
+        Posting[] lists = postingsFor(query);
+        List<Long> result = new ArrayList<>(limit);
+        if (lists.length == 0) {
+            return result;
+        }
+
+        Posting smallest = lists[0];
+        int skipped = 0;
+        for (int s = 0; s < smallest.segments.length && result.size() < limit; s++) {
+            long[] segment = smallest.segments[descending ? smallest.segments.length - 1 - s : s];
+            for (int i = 0; i < segment.length && result.size() < limit; i++) {
+                long id = segment[descending ? segment.length - 1 - i : i];
+                if (!containsInAll(lists, id)) {
+                    continue;
+                }
+                Document document = documents.get(id);
+                if (document == null || !document.contains(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    public int documentCount() {
+        return documents.size();
+    }
+
+    public int gramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Приблизительный объём памяти индекса в байтах: списки ID, ключи и сохранённые тексты.
+     */
+    public long estimateMemoryBytes() {
+        return memoryBytes.sum();
+    }
+
+    /**
+     * Запрос короче триграммы: вещи просматриваются в порядке ID, пока не наберётся страница.
+     */
+    private List<Long> scan(String query, int offset, int limit, boolean descending) {
+        List<Long> result = new ArrayList<>(limit);
+        int skipped = 0;
+        for (Document document : descending ? documents.descendingMap().values() : documents.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (!document.contains(query)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(document.getId());
+            }
+        }
+        return result;
+    }
+
+    private Posting[] postingsFor(String query) {
+        Set<String> grams = grams(query);
+        Posting[] lists = new Posting[grams.size()];
+        int i = 0;
+        for (String gram : grams) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return new Posting[0];
+            }
+            lists[i++] = posting;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(posting -> posting.size));
+        return lists;
+    }
+
+    /**
+     * Учитывает в оценке памяти замену списка триграммы и возвращает новый список ({@code null} удаляет ключ).
+     */
+    private Posting replace(String gram, Posting previous, Posting current) {
+        long delta = (current == null ? 0 : current.memoryBytes(gram))
+                - (previous == null ? 0 : previous.memoryBytes(gram));
+        memoryBytes.add(delta);
+        return current;
+    }
+
+    private static boolean containsInAll(Posting[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    public static final class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+
+        public Document(long id, String name, String description) {
+            this.id = id;
+            this.name = name == null ? "" : name.toLowerCase(Locale.ROOT);
+            this.description = description == null ? "" : description.toLowerCase(Locale.ROOT);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        private boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        private long memoryBytes() {
+            return DOCUMENT_BYTES + 2L * (name.length() + description.length());
+        }
+    }
+
+    /**
+     * Неизменяемый упорядоченный список ID триграммы: непустые сегменты по возрастанию ID.
+     * Сегмент, переросший {@link #SEGMENT_SIZE}, делится пополам, опустевший удаляется.
+     */
+    private static final class Posting {
+        private final long[][] segments;
+        private final int size;
+
+        private Posting(long[][] segments, int size) {
+            this.segments = segments;
+            this.size = size;
+        }
+
+        private static Posting of(long[] sortedIds) {
+            long[][] segments = new long[(sortedIds.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE][];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = Arrays.copyOfRange(sortedIds, i * SEGMENT_SIZE,
+                        Math.min(sortedIds.length, (i + 1) * SEGMENT_SIZE));
+            }
+            return new Posting(segments, sortedIds.length);
+        }
+
+        private boolean contains(long id) {
+            long[] segment = segments[segmentFor(id)];
+            return Arrays.binarySearch(segment, id) >= 0;
+        }
+
+        private Posting insert(long id) {
+            int index = segmentFor(id);
+            long[] segment = segments[index];
+            int position = Arrays.binarySearch(segment, id);
+            if (position >= 0) {
+                return this;
+            }
+            position = -position - 1;
+            long[] grown = new long[segment.length + 1];
+            System.arraycopy(segment, 0, grown, 0, position);
+            grown[position] = id;
+            System.arraycopy(segment, position, grown, position + 1, segment.length - position);
+            if (grown.length <= SEGMENT_SIZE) {
+                long[][] copy = segments.clone();
+                copy[index] = grown;
+                return new Posting(copy, size + 1);
+            }
+            long[][] copy = new long[segments.length + 1][];
+            System.arraycopy(segments, 0, copy, 0, index);
+            copy[index] = Arrays.copyOfRange(grown, 0, grown.length / 2);
+            copy[index + 1] = Arrays.copyOfRange(grown, grown.length / 2, grown.length);
+            System.arraycopy(segments, index + 1, copy, index + 2, segments.length - index - 1);
+            return new Posting(copy, size + 1);
+        }
+
+        /**
+         * Список без ID; {@code null}, если ID был последним.
+         */
+        private Posting remove(long id) {
+            int index = segmentFor(id);
+            long[] segment = segments[index];
+            int position = Arrays.binarySearch(segment, id);
+            if (position < 0) {
+                return this;
+            }
+            if (size == 1) {
+                return null;
+            }
+            if (segment.length == 1) {
+                long[][] copy = new long[segments.length - 1][];
+                System.arraycopy(segments, 0, copy, 0, index);
+                System.arraycopy(segments, index + 1, copy, index, segments.length - index - 1);
+                return new Posting(copy, size - 1);
+            }
+            long[] shrunk = new long[segment.length - 1];
+            System.arraycopy(segment, 0, shrunk, 0, position);
+            System.arraycopy(segment, position + 1, shrunk, position, segment.length - position - 1);
+            long[][] copy = segments.clone();
+            copy[index] = shrunk;
+            return new Posting(copy, size - 1);
+        }
+
+        /**
+         * Сегмент, в который попадает ID: последний, первый ID которого не больше искомого, или первый.
+         */
+        private int segmentFor(long id) {
+            int low = 0;
+            int high = segments.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (segments[middle][0] <= id) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+
+        private long memoryBytes(String gram) {
+            return POSTING_BYTES + 2L * gram.length() + 8L * size + SEGMENT_BYTES * segments.length;
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toSortedArray() {
+            long[] result = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.ItemImportFormat;
 import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.model.ItemTag;
+import ru.practicum.shareit.util.CursorPage;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface ItemService {
@@ -14,9 +20,35 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    /**
+     * Вещь по версиям, прочитанным {@link #getItemTag(Long, Long)}: снимок из кэша, отставший от них,
+     * перечитывается из БД, поэтому тело ответа не старше ETag.
+     */
+    ItemDto getItemById(Long itemId, Long userId, ItemTag tag);
+
+    /**
+     * Версии для ETag ответа {@link #getItemById(Long, Long)} без загрузки вещи; {@code null}, если вещи нет.
+     * Владельцу видны бронирования, поэтому его ETag меняется и с началом следующего бронирования.
+     */
+    ItemTag getItemTag(Long itemId, Long userId);
+
     List<ItemDto> getItems(Long userId, int from, int size, ItemSort sort);
 
+    CursorPage<ItemDto> getItemsPage(Long userId, String cursor, int size, ItemSort sort);
+
     List<ItemDto> searchItems(String text, int from, int size, ItemSort sort);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    /**
+     * Все вещи владельца в NDJSON по возрастанию ID, без бронирований и отзывов. Пользователь проверяется
+     * при вызове, строки читаются из БД при записи тела ответа.
+     */
+    StreamingResponseBody exportItems(Long userId);
+
+    /**
+     * Загружает вещи пользователя из CSV или NDJSON порциями, каждую в своей транзакции. Пользователь
+     * проверяется один раз до чтения тела; строки, не прошедшие проверку, не сохраняются и перечисляются в отчёте.
+     */
+    ItemImportReport importItems(Long userId, ItemImportFormat format, InputStream body);
 }
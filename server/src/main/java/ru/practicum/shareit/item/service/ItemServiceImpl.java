@@ -2,32 +2,45 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRecordRepository;
 import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemSnapshot;
 import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.model.ItemTag;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSpecifications;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.ItemImportFormat;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.KeysetPager;
+import ru.practicum.shareit.util.NdjsonExporter;
 
 import javax.transaction.Transactional;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,9 +49,15 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserService userService;
-    private final BookingRepository bookingRepository;
+    private final BookingRecordRepository bookingRecordRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final KeysetPager keysetPager;
+    private final ItemVersions itemVersions;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final NdjsonExporter ndjsonExporter;
+    private final ItemImporter itemImporter;
 
     @Override
     @Transactional
@@ -51,12 +70,16 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item newItem = itemRepository.save(item);
+        itemBookingSummaries.itemAdded(newItem.getId());
+        itemSearchEngine.index(newItem);
+        itemVersions.itemAndSearchChanged(newItem.getId());
         log.info("Добавлен предмет с ID: {} - {}", newItem.getId(), newItem);
         return ItemMapper.itemToDto(newItem);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = "items", key = "#itemId")
     public ItemDto editItem(Long userId, Long itemId, ItemDto itemDto) {
         Item mainItem = itemRepository.getExistingItem(itemId);
         Item itemDataToUpdate = ItemMapper.dtoToItem(itemDto);
@@ -75,44 +98,83 @@ public class ItemServiceImpl implements ItemService {
         }
         log.info("Обновлен предмет с ID: {}. Новые данные: {}", itemId, mainItem);
         itemRepository.save(mainItem);
+        itemSearchEngine.index(mainItem);
+        itemVersions.itemAndSearchChanged(itemId);
         return ItemMapper.itemToDto(mainItem);
     }
 
     @Override
     public ItemDto getItemById(Long itemId, Long userId) {
-        Item item = itemRepository.getExistingItem(itemId);
-        ItemDto itemDto = ItemMapper.itemToDto(item);
+        ItemTag tag = getItemTag(itemId, userId);
+        if (tag == null) {
+            throw new ItemNotFoundException("Предмет с ID: " + itemId + " не существует.");
+        }
+        return getItemById(itemId, userId, tag);
+    }
+
+    @Override
+    public ItemDto getItemById(Long itemId, Long userId, ItemTag tag) {
+        ItemSnapshot item = itemRepository.getCachedItem(itemId);
+        if (!tag.matches(item)) {
+            item = itemRepository.refreshCachedItem(itemId);
+        }
+        List<ItemDto> items = List.of(ItemMapper.snapshotToDto(item));
 
-        if (userId.equals(item.getOwner().getId())) {
-            findLastAndNextBookings(itemDto);
+        if (tag.getSummary() != null) {
+            setLastAndNextBookings(items, Map.of(itemId, tag.getSummary()));
         }
 
-        findComments(itemDto);
-        return itemDto;
+        findComments(items);
+        return items.get(0);
+    }
+
+    @Override
+    public ItemTag getItemTag(Long itemId, Long userId) {
+        return itemRepository.findVersionById(itemId)
+                .map(version -> new ItemTag(version.getVersion(), version.getContentVersion(), version.getOwnerId(),
+                        userId.equals(version.getOwnerId())
+                                ? itemBookingSummaries.find(List.of(itemId)).get(itemId)
+                                : null))
+                .orElse(null);
     }
 
     @Override
     public List<ItemDto> getItems(Long userId, int from, int size, ItemSort sort) {
         Pageable page = createPageRequest(from, size, sort);
-        List<ItemDto> items = itemRepository.findByOwnerId(userId, page)
-                .getContent()
-                .stream()
-                .map(ItemMapper::itemToDto)
+        List<ItemRepository.ItemWithSummary> rows = itemRepository.findWithSummaryByOwnerId(userId, page);
+        List<ItemDto> items = rows.stream()
+                .map(row -> ItemMapper.itemToDto(row.getItem()))
                 .collect(Collectors.toList());
 
-        items.forEach(this::findLastAndNextBookings);
-        items.forEach(this::findComments);
+        if (!items.isEmpty()) {
+            Map<Long, ItemBookingSummary> summaries = rows.stream()
+                    .filter(row -> row.getSummary() != null)
+                    .collect(Collectors.toMap(row -> row.getItem().getId(), ItemRepository.ItemWithSummary::getSummary));
+            setLastAndNextBookings(items, itemBookingSummaries.resolve(itemIds(items), summaries));
+            findComments(items);
+        }
         return items;
     }
 
+    @Override
+    public CursorPage<ItemDto> getItemsPage(Long userId, String cursor, int size, ItemSort sort) {
+        CursorPage<ItemDto> page = keysetPager.findPage(Item.class, ItemSpecifications.byOwner(userId),
+                        sort.getSortValue(), cursor, size)
+                .map(ItemMapper::itemToDto);
+
+        if (!page.getContent().isEmpty()) {
+            setLastAndNextBookings(page.getContent(), itemBookingSummaries.find(itemIds(page.getContent())));
+            findComments(page.getContent());
+        }
+        return page;
+    }
+
     @Override
     public List<ItemDto> searchItems(String text, int from, int size, ItemSort sort) {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        Pageable page = createPageRequest(from, size, sort);
-        return itemRepository.findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(text, text, page)
-                .getContent()
+        return itemSearchEngine.search(text, from, size, sort)
                 .stream()
                 .map(ItemMapper::itemToDto)
                 .collect(Collectors.toList());
@@ -121,12 +183,12 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
-        Item item = itemRepository.getExistingItem(itemId);
+        Item item = itemRepository.getCachedItem(itemId).toItem();
         User booker = UserMapper.dtoToUser(userService.getUserById(userId));
-        List<Booking> bookings = bookingRepository.findByBookerAndItemIdAndEndBeforeAndStatus(booker, itemId,
+        boolean booked = bookingRecordRepository.existsByBookerIdAndItemIdAndEndBeforeAndStatus(booker.getId(), itemId,
                 LocalDateTime.now(), BookingStatus.APPROVED);
 
-        if (bookings.isEmpty()) {
+        if (!booked) {
             log.warn("Не найдено завершенных бронирований вещи с ID: {} у пользователя с ID: {}", itemId, userId);
             throw new BookingException("Пользователь не бронировал данную вещь, либо бронирование еще не завершено");
         }
@@ -136,30 +198,54 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(booker);
         comment.setCreated(LocalDateTime.now());
         Comment newComment = commentRepository.save(comment);
+        itemVersions.itemChanged(itemId);
         log.info("Добавлен комментарий к вещи с ID: {} - {}", itemId, newComment.getText());
         return CommentMapper.commentToDto(newComment);
     }
 
-    @Transactional
-    private void findLastAndNextBookings(ItemDto itemDto) {
-        Booking lastBooking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(itemDto.getId(),
-                LocalDateTime.now(), BookingStatus.APPROVED);
-        if (lastBooking != null) {
-            log.info("Найдено крайнее бронирование предмета с ID: {} - {}", itemDto.getId(), lastBooking);
-            itemDto.setLastBooking(new ItemDto.Booking(lastBooking.getId(), lastBooking.getBooker().getId()));
+    @Override
+    public StreamingResponseBody exportItems(Long userId) {
+        Long ownerId = userService.getUserById(userId).getId();
+        return ndjsonExporter.export(() -> itemRepository.streamDtoByOwnerId(ownerId));
+    }
+
+    @Override
+    public ItemImportReport importItems(Long userId, ItemImportFormat format, InputStream body) {
+        Long ownerId = userService.getUserById(userId).getId();
+        ItemImportReport report = itemImporter.importItems(ownerId, format, body);
+        if (report.getImported() > 0) {
+            itemVersions.itemsImported();
         }
+        log.info("Пользователь с ID: {} загрузил вещей: {}, отклонено строк: {}", ownerId, report.getImported(),
+                report.getRejected());
+        return report;
+    }
 
-        Booking nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStart(itemDto.getId(),
-                LocalDateTime.now(), BookingStatus.APPROVED);
-        if (nextBooking != null) {
-            log.info("Найдено следующее бронирование предмета с ID: {} - {}", itemDto.getId(), nextBooking);
-            itemDto.setNextBooking(new ItemDto.Booking(nextBooking.getId(), nextBooking.getBooker().getId()));
+    private void setLastAndNextBookings(List<ItemDto> items, Map<Long, ItemBookingSummary> summaries) {
+        for (ItemDto itemDto : items) {
+            ItemBookingSummary summary = summaries.get(itemDto.getId());
+            if (summary.getLastBookingId() != null) {
+                itemDto.setLastBooking(new ItemDto.Booking(summary.getLastBookingId(), summary.getLastBookerId()));
+            }
+            if (summary.getNextBookingId() != null) {
+                itemDto.setNextBooking(new ItemDto.Booking(summary.getNextBookingId(), summary.getNextBookerId()));
+            }
         }
     }
 
-    private void findComments(ItemDto itemDto) {
-        List<Comment> comments = commentRepository.findByItemId(itemDto.getId());
-        itemDto.setComments(comments.stream().map(CommentMapper::commentToDto).collect(Collectors.toList()));
+    private void findComments(List<ItemDto> items) {
+        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findByItemIdIn(itemIds(items))
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::commentToDto, Collectors.toList())));
+
+        items.forEach(itemDto -> itemDto.setComments(commentsByItemId.getOrDefault(itemDto.getId(), new ArrayList<>())));
+    }
+
+    private static List<Long> itemIds(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
     }
 
     private PageRequest createPageRequest(int from, int size, ItemSort sort) {
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Изменения данных, из которых строятся ответы {@code GET /items/{itemId}} и {@code GET /items/search}.
+ * <p>
+ * ETag вещи строится по двум колонкам: {@code version} увеличивает Hibernate при изменении полей вещи,
+ * {@code content_version} - методы этого класса при новых отзывах, подтверждённых бронированиях и изменении
+ * их авторов. Версию сущности они не трогают, поэтому не мешают владельцу редактировать вещь. Версия
+ * поиска - значение последовательности {@code item_search_version_seq}, его читает представление
+ * {@code item_search_version}: все экземпляры сервера видят одну версию. Последовательность увеличивается
+ * после фиксации изменения и вне транзакции, поэтому записи разных владельцев не ждут друг друга, а
+ * откаченное изменение версию не меняет. Увеличить её до фиксации нельзя: параллельный поиск получил бы
+ * новый ETag со старыми результатами. Неудачное увеличение повторяется {@link #SEARCH_VERSION_ATTEMPTS} раза;
+ * если не удались все попытки, изменение уже зафиксировано, поэтому ошибка только записывается в журнал,
+ * а прежний ETag поиска действует до следующего изменения любой вещи.
+ * <p>
+ * Версия поиска одна на все запросы: любое изменение любой вещи сбрасывает ETag всех результатов поиска,
+ * даже не затронутых изменением. Это сознательное ограничение - версия по тексту запроса потребовала бы
+ * знать при записи, в какие результаты попадает вещь, а поиск и так выполняется по индексу; ETag поиска
+ * экономит передачу тела, пока вещи не меняются.
+ * <p>
+ * Об изменении сервер сообщает в заголовке {@link #INVALIDATE_HEADER} ответа на изменяющий запрос:
+ * {@code items/{itemId}}, {@code search} или {@code *} (изменилось всё).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemVersions {
+
+    public static final String INVALIDATE_HEADER = "X-ShareIt-Invalidate";
+
+    private static final String SEARCH = "search";
+    private static final String ALL = "*";
+    private static final int SEARCH_VERSION_ATTEMPTS = 3;
+
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public String searchTag() {
+        return String.valueOf(jdbcTemplate.queryForObject("SELECT version FROM item_search_version", Long.class));
+    }
+
+    /**
+     * Изменились отзывы или бронирования вещи: результаты поиска остаются прежними.
+     */
+    public void itemChanged(Long itemId) {
+        itemRepository.incrementContentVersion(itemId);
+        afterCommit(() -> notifyClient(items(itemId)));
+    }
+
+    /**
+     * То же, что {@link #itemChanged(Long)}, для нескольких вещей одним запросом.
+     */
+    public void itemsChanged(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        itemRepository.incrementContentVersions(itemIds);
+        afterCommit(() -> notifyClient(itemIds.stream()
+                .map(ItemVersions::items)
+                .collect(Collectors.joining(","))));
+    }
+
+    /**
+     * Изменились поля вещи или добавлена новая вещь.
+     */
+    public void itemAndSearchChanged(Long itemId) {
+        afterCommit(() -> {
+            incrementSearchVersion();
+            notifyClient(items(itemId) + "," + SEARCH);
+        });
+    }
+
+    /**
+     * Загружены новые вещи: меняются только результаты поиска, ответов о самих вещах ещё не было.
+     * Вызывается после фиксации порций.
+     */
+    public void itemsImported() {
+        afterCommit(() -> {
+            incrementSearchVersion();
+            notifyClient(SEARCH);
+        });
+    }
+
+    /**
+     * Изменилось имя пользователя: оно показывается в отзывах.
+     */
+    public void userRenamed(Long userId) {
+        itemRepository.incrementContentVersionByCommentAuthor(userId);
+        afterCommit(() -> notifyClient(ALL));
+    }
+
+    /**
+     * Удаляется пользователь вместе с его вещами, отзывами и бронированиями. Вызывается до удаления.
+     */
+    public void userDeleted(Long userId) {
+        itemRepository.incrementContentVersionByCommentAuthor(userId);
+        itemRepository.incrementContentVersionByBooker(userId);
+        afterCommit(() -> {
+            incrementSearchVersion();
+            notifyClient(ALL);
+        });
+    }
+
+    /**
+     * Значение последовательности не откатывается и не блокирует строк, поэтому запрос безопасен и на
+     * соединении только что зафиксированной транзакции и его можно повторять.
+     */
+    private void incrementSearchVersion() {
+        for (int attempt = 1; attempt <= SEARCH_VERSION_ATTEMPTS; attempt++) {
+            try {
+                jdbcTemplate.queryForObject("SELECT nextval('item_search_version_seq')", Long.class);
+                return;
+            } catch (DataAccessException e) {
+                if (attempt == SEARCH_VERSION_ATTEMPTS) {
+                    log.error("Версия поиска не увеличена после {} попыток, ETag поиска устарел до следующего "
+                            + "изменения вещей", attempt, e);
+                } else {
+                    log.warn("Не удалось увеличить версию поиска, попытка {}: {}", attempt, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void notifyClient(String event) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.addHeader(INVALIDATE_HEADER, event);
+            }
+        }
+    }
+
+    private static String items(Long itemId) {
+        return "items/" + itemId;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Переносимый поиск через LIKE, работает на любой БД (в том числе H2 в профилях ci и test).
+ * Сортировка RELEVANCE здесь сводится к сортировке по ID.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size, ItemSort sort) {
+        return itemRepository.searchAvailable(ItemSearchEngine.containsPattern(text), PageRequest.of(from / size, size, sort.getSortValue()));
+    }
+}
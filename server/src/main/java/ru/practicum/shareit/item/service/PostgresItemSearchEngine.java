@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск PostgreSQL: совпадение по словам через tsvector (GIN-индекс)
+ * и по подстроке через ILIKE, который обслуживают триграммные индексы pg_trgm.
+ * При сортировке RELEVANCE результаты упорядочиваются по ts_rank.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size, ItemSort sort) {
+        return itemRepository.searchAvailableFullText(text, ItemSearchEngine.containsPattern(text),
+                sort == ItemSort.RELEVANCE, sort == ItemSort.ID_DESC, PageRequest.of(from / size, size));
+    }
+}
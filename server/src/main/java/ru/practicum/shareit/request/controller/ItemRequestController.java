@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequestSort;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -27,15 +29,24 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                @RequestParam(value = "from", defaultValue = "0") int from,
                                                @RequestParam(value = "size", defaultValue = "100") int size,
-                                               @RequestParam(value = "sort", defaultValue = "CREATED_DESC") ItemRequestSort sort) {
-        return itemRequestService.getAllRequests(userId, from, size, sort);
+                                               @RequestParam(value = "sort", defaultValue = "CREATED_DESC") ItemRequestSort sort,
+                                               @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return itemRequestService.getAllRequestsPage(userId, cursor, size, sort).toResponse();
+        }
+        return ResponseEntity.ok(itemRequestService.getAllRequests(userId, from, size, sort));
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long requestId) {
+    public ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long requestId,
+                                         WebRequest request) {
+        String eTag = itemRequestService.getRequestTag(userId, requestId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return itemRequestService.getRequestById(userId, requestId);
     }
 }
@@ -22,7 +22,8 @@ public class ItemRequestMapper {
                 itemRequestDto.getId(),
                 itemRequestDto.getDescription(),
                 null,
-                itemRequestDto.getCreated()
+                itemRequestDto.getCreated(),
+                0
         );
     }
 }
@@ -9,18 +9,37 @@ import ru.practicum.shareit.request.model.ItemRequest;
 
 import org.springframework.data.domain.Pageable;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id = :userId ORDER BY r.created DESC")
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Long userId);
 
     @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id != :userId")
     Page<ItemRequest> findAllOtherRequests(Long userId, Pageable pageable);
 
+    /**
+     * Версия запроса и вещей, добавленных в ответ на него: сумма версий растёт при любом изменении вещи.
+     */
+    @Query("SELECT r.version AS version, COUNT(i.id) AS itemCount, COALESCE(SUM(i.version), 0) AS itemVersions " +
+            "FROM ItemRequest r LEFT JOIN Item i ON i.request = r " +
+            "WHERE r.id = :requestId " +
+            "GROUP BY r.id, r.version")
+    Optional<RequestVersion> findVersionById(Long requestId);
+
     default ItemRequest getExistingRequest(Long requestId) {
         return findById(requestId).orElseThrow(() -> {
             throw new RequestNotFoundException("Запрос с ID: " + requestId + " не существует.");
         });
     }
+
+    interface RequestVersion {
+        long getVersion();
+
+        long getItemCount();
+
+        long getItemVersions();
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+/**
+ * Условия выборки запросов для постраничной выдачи по курсору.
+ */
+@UtilityClass
+public class ItemRequestSpecifications {
+
+    public static Specification<ItemRequest> notRequestedBy(Long userId) {
+        return (root, query, builder) -> builder.notEqual(root.get("requestor").get("id"), userId);
+    }
+}
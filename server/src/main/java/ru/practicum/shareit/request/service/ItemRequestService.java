@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequestSort;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.List;
 
@@ -13,5 +14,13 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllRequests(Long userId, int from, int size, ItemRequestSort sort);
 
+    CursorPage<ItemRequestDto> getAllRequestsPage(Long userId, String cursor, int size, ItemRequestSort sort);
+
     ItemRequestDto getRequestById(Long userId, Long requestId);
+
+    /**
+     * ETag ответа {@link #getRequestById(Long, Long)} по версиям запроса и вещей в ответ на него;
+     * {@code null}, если запроса нет.
+     */
+    String getRequestTag(Long userId, Long requestId);
 }
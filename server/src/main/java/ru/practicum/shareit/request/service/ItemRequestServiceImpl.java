@@ -6,19 +6,23 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestSort;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.request.repository.ItemRequestSpecifications;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.KeysetPager;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,14 +31,15 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
+    private final KeysetPager keysetPager;
 
     @Override
     @Transactional
     public ItemRequestDto addRequest(Long userId, ItemRequestDto itemRequestDto) {
         ItemRequest request = ItemRequestMapper.dtoToRequest(itemRequestDto);
-        request.setRequestor(userRepository.getExistingUser(userId));
+        request.setRequestor(UserMapper.dtoToUser(userService.getUserById(userId)));
         request.setCreated(LocalDateTime.now());
         requestRepository.save(request);
         log.info("Оставлен запрос на вещь от пользователя с ID: {} - {}", userId, request);
@@ -43,13 +48,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getRequests(Long userId) {
-        userRepository.getExistingUser(userId);
+        userService.getUserById(userId);
         List<ItemRequestDto> requests = requestRepository.findByRequestorIdOrderByCreatedDesc(userId)
                 .stream()
                 .map(ItemRequestMapper::requestToDto)
                 .collect(Collectors.toList());
 
-        requests.forEach(this::findItemsForRequest);
+        findItemsForRequests(requests);
         return requests;
     }
 
@@ -62,31 +67,49 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .map(ItemRequestMapper::requestToDto)
                 .collect(Collectors.toList());
 
-        requests.forEach(this::findItemsForRequest);
+        findItemsForRequests(requests);
         return requests;
+    }
+
+    @Override
+    public CursorPage<ItemRequestDto> getAllRequestsPage(Long userId, String cursor, int size, ItemRequestSort sort) {
+        CursorPage<ItemRequestDto> page = keysetPager.findPage(ItemRequest.class,
+                        ItemRequestSpecifications.notRequestedBy(userId), sort.getSortValue(), cursor, size)
+                .map(ItemRequestMapper::requestToDto);
 
+        findItemsForRequests(page.getContent());
+        return page;
     }
 
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        userRepository.getExistingUser(userId);
+        userService.getUserById(userId);
         ItemRequest itemRequest = requestRepository.getExistingRequest(requestId);
         ItemRequestDto requestDto = ItemRequestMapper.requestToDto(itemRequest);
-        findItemsForRequest(requestDto);
+        findItemsForRequests(List.of(requestDto));
         return requestDto;
     }
 
-    private void findItemsForRequest(ItemRequestDto requestDto) {
-        List<ItemDto> items = itemRepository.findByRequestId(requestDto.getId())
-                .stream()
-                .map(ItemMapper::itemToDto)
-                .collect(Collectors.toList());
+    @Override
+    public String getRequestTag(Long userId, Long requestId) {
+        userService.getUserById(userId);
+        return requestRepository.findVersionById(requestId)
+                .map(version -> version.getVersion() + "-" + version.getItemCount() + "-" + version.getItemVersions())
+                .orElse(null);
+    }
 
-        if (items.isEmpty()) {
-            requestDto.setItems(new ArrayList<>());
-        } else {
-            requestDto.setItems(items);
+    private void findItemsForRequests(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
         }
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findDtoByRequestIdIn(requests.stream()
+                        .map(ItemRequestDto::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+
+        requests.forEach(requestDto -> requestDto.setItems(itemsByRequestId.getOrDefault(requestDto.getId(),
+                new ArrayList<>())));
     }
 
     private PageRequest createPageRequest(int from, int size, ItemRequestSort sort) {
@@ -2,13 +2,21 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.service.BookingAdmission;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.service.ItemBookingSummaries;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemVersions;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import javax.transaction.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +25,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemVersions itemVersions;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingAdmission bookingAdmission;
 
     @Override
     public UserDto createUser(UserDto userDto) {
@@ -26,11 +38,17 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = "users", key = "#userId", sync = true)
     public UserDto getUserById(Long userId) {
         return UserMapper.userToDto(userRepository.getExistingUser(userId));
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "users", key = "#userId"),
+            @CacheEvict(cacheNames = "items", allEntries = true)
+    })
     public UserDto updateUser(Long userId, UserDto userDto) {
         User userDataToUpdate = UserMapper.dtoToUser(userDto);
         User mainUser = userRepository.getExistingUser(userId);
@@ -45,6 +63,9 @@ public class UserServiceImpl implements UserService {
             mainUser.setEmail(userDataToUpdate.getEmail());
         }
         userRepository.save(mainUser);
+        if (userDataToUpdate.getName() != null) {
+            itemVersions.userRenamed(userId);
+        }
         log.info("Обновлен пользователь с ID: {}. Новые данные: {}", userId, mainUser);
 
         return UserMapper.userToDto(mainUser);
@@ -57,7 +78,16 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "users", key = "#userId"),
+            @CacheEvict(cacheNames = "items", allEntries = true)
+    })
     public void deleteUser(Long userId) {
+        itemVersions.userDeleted(userId);
+        itemBookingSummaries.bookerDeleted(userId);
+        itemSearchEngine.ownerDeleted(userId);
+        bookingAdmission.userDeleted(userId);
         userRepository.deleteById(userId);
     }
 
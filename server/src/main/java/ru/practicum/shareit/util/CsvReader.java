@@ -0,0 +1,79 @@
+package ru.practicum.shareit.util;
+
+import ru.practicum.shareit.exception.ImportException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Чтение CSV (RFC 4180) по одной записи, без чтения всего файла в память. Поле в кавычках может содержать
+ * запятые, переводы строк и удвоенные кавычки; {@code \r} вне кавычек пропускается. Читать лучше через
+ * {@link java.io.BufferedReader}: символы берутся из {@code reader} по одному.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Номер строки файла, с которой началась последняя прочитанная запись.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Поля следующей записи или {@code null} в конце файла. Пустая строка файла - запись из одного пустого поля.
+     *
+     * @throws ImportException если файл закончился внутри поля в кавычках
+     */
+    public List<String> next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new ImportException("Не закрыта кавычка в записи со строки " + recordLine);
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Страница выдачи в режиме курсора. {@code nextCursor} равен {@code null}, если страница последняя.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(PageCursor.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(content);
+    }
+}
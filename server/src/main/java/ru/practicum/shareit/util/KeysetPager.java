@@ -0,0 +1,124 @@
+package ru.practicum.shareit.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.CursorException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Постраничная выборка по ключу (keyset): вместо OFFSET следующая страница начинается сразу после
+ * пары (ключ сортировки, ID) последней записи предыдущей страницы, поэтому стоимость запроса
+ * не зависит от номера страницы. ID участвует в сортировке как второй ключ для однозначного порядка.
+ * <p>
+ * NULL в ключе сортировки считается больше любого значения, как в PostgreSQL: такие записи идут
+ * в конце при сортировке по возрастанию и в начале при сортировке по убыванию. H2 в профиле test
+ * настроен так же ({@code DEFAULT_NULL_ORDERING=HIGH}).
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPager {
+
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+
+    public <T> CursorPage<T> findPage(Class<T> type, Specification<T> filter, Sort sort, String cursor, int size) {
+        Sort.Order order = sort.iterator().next();
+        String sortName = order.getProperty() + ":" + order.getDirection();
+        boolean descending = order.isDescending();
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(type);
+        Root<T> root = query.from(type);
+        Path<Long> id = root.get(ID);
+        Path<Comparable<Object>> key = root.get(order.getProperty());
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filterPredicate = filter.toPredicate(root, query, builder);
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            if (!pageCursor.getSort().equals(sortName)) {
+                throw new CursorException("Курсор получен для другой сортировки: " + pageCursor.getSort());
+            }
+            predicates.add(seek(builder, id, key, pageCursor, descending, ID.equals(order.getProperty())));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(descending ? builder.desc(key) : builder.asc(key),
+                        descending ? builder.desc(id) : builder.asc(id));
+        List<T> content = entityManager.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+
+        String nextCursor = null;
+        if (content.size() == size) {
+            BeanWrapperImpl last = new BeanWrapperImpl(content.get(content.size() - 1));
+            Object lastKey = last.getPropertyValue(order.getProperty());
+            nextCursor = new PageCursor(sortName, (Long) last.getPropertyValue(ID),
+                    lastKey == null ? null : lastKey.toString()).encode();
+        }
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    /**
+     * (key, id) после курсора. Нестрогое условие по ключу дублирует первое слагаемое, но даёт СУБД
+     * границу диапазона для индекса по ключу сортировки. Записи с NULL в ключе идут после всех
+     * остальных по возрастанию и перед ними по убыванию, между собой - по ID.
+     */
+    private static Predicate seek(CriteriaBuilder builder, Path<Long> id, Path<Comparable<Object>> key,
+                                  PageCursor cursor, boolean descending, boolean byId) {
+        if (byId) {
+            return descending ? builder.lessThan(id, cursor.getId()) : builder.greaterThan(id, cursor.getId());
+        }
+        if (cursor.getKey() == null) {
+            Predicate nullKeys = builder.and(builder.isNull(key),
+                    descending ? builder.lessThan(id, cursor.getId()) : builder.greaterThan(id, cursor.getId()));
+            return descending ? builder.or(nullKeys, builder.isNotNull(key)) : nullKeys;
+        }
+        Comparable<Object> lastKey = parseKey(cursor.getKey(), key.getJavaType());
+        if (descending) {
+            return builder.and(builder.lessThanOrEqualTo(key, lastKey),
+                    builder.or(builder.lessThan(key, lastKey),
+                            builder.and(builder.equal(key, lastKey), builder.lessThan(id, cursor.getId()))));
+        }
+        return builder.or(builder.and(builder.greaterThanOrEqualTo(key, lastKey),
+                        builder.or(builder.greaterThan(key, lastKey),
+                                builder.and(builder.equal(key, lastKey), builder.greaterThan(id, cursor.getId())))),
+                builder.isNull(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> parseKey(String value, Class<?> type) {
+        try {
+            if (type.equals(LocalDateTime.class)) {
+                return (Comparable<Object>) (Comparable<?>) LocalDateTime.parse(value);
+            }
+            if (type.equals(Long.class)) {
+                return (Comparable<Object>) (Comparable<?>) Long.valueOf(value);
+            }
+            if (type.equals(String.class)) {
+                return (Comparable<Object>) (Comparable<?>) value;
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new CursorException("Некорректный курсор: " + value);
+        }
+        throw new CursorException("Сортировка по " + type.getSimpleName() + " не поддерживается курсором");
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка строк в NDJSON (по объекту JSON на строку) по мере чтения из БД. Строки читаются потоком
+ * {@link Stream} из запроса репозитория с размером выборки {@link #FETCH_SIZE} в транзакции только для чтения
+ * и сразу сериализуются в ответ, поэтому память не зависит от числа строк. Запросы выгрузки выбирают DTO
+ * выражением конструктора: сущности не накапливаются в контексте постоянства.
+ * <p>
+ * Тело пишется в потоке обработки асинхронных запросов Spring MVC, транзакция открывается там же.
+ * Ошибки до начала выгрузки (например, неизвестный пользователь) нужно проверять до вызова
+ * {@link #export(Supplier)}: после первой строки статус ответа уже не изменить.
+ */
+@Slf4j
+@Component
+public class NdjsonExporter {
+
+    /**
+     * Для {@code @QueryHint(name = "org.hibernate.fetchSize", ...)} в методах выгрузки репозиториев.
+     * На Postgres без размера выборки драйвер читает весь результат в память.
+     */
+    public static final String FETCH_SIZE = "1000";
+
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public NdjsonExporter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public static ResponseEntity<StreamingResponseBody> toResponse(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> rows) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                long written = write(stream.iterator(), out);
+                log.debug("Выгружено строк: {}", written);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> long write(Iterator<T> rows, OutputStream out) throws IOException {
+        long written = 0;
+        try (SequenceWriter sequence = writer.writeValues(out)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+                written++;
+            }
+        }
+        if (written > 0) {
+            out.write('\n');
+        }
+        return written;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.CursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Курсор постраничной выдачи: сортировка, значение ключа сортировки и ID последней записи страницы.
+ * Клиенту передаётся в виде непрозрачной строки Base64. Если ключ последней записи NULL, он в курсор
+ * не пишется, а {@link #getKey()} возвращает {@code null}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final String sort;
+    private final long id;
+    private final String key;
+
+    public String encode() {
+        String value = sort + SEPARATOR + id + (key == null ? "" : SEPARATOR + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\" + SEPARATOR, 3);
+            return new PageCursor(parts[0], Long.parseLong(parts[1]), parts.length == 3 ? parts[2] : null);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new CursorException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1 @@
+CREATE SEQUENCE IF NOT EXISTS item_search_version_seq;
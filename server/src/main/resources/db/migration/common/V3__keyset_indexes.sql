@@ -0,0 +1,15 @@
+DROP INDEX IF EXISTS bookings_booker_start_idx;
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_id_idx ON bookings (booker_id, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_end_id_idx ON bookings (booker_id, end_date, booking_id);
+
+DROP INDEX IF EXISTS bookings_item_start_idx;
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_id_idx ON bookings (item_id, start_date, booking_id);
+
+DROP INDEX IF EXISTS items_owner_idx;
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, item_id);
+
+CREATE INDEX IF NOT EXISTS requests_created_id_idx ON requests (created_date, request_id);
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+    item_id BIGINT PRIMARY KEY REFERENCES items(item_id) ON DELETE CASCADE,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    refreshed_at TIMESTAMP WITHOUT TIME ZONE,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO item_booking_summaries (item_id)
+SELECT i.item_id FROM items i
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summaries s WHERE s.item_id = i.item_id);
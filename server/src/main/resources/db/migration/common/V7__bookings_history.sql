@@ -0,0 +1,23 @@
+CREATE TABLE IF NOT EXISTS bookings_history (
+    booking_id BIGINT PRIMARY KEY,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    item_id BIGINT NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    booker_id BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    status varchar(10) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS bookings_history_booker_start_id_idx ON bookings_history (booker_id, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_history_item_start_id_idx ON bookings_history (item_id, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_history_booker_item_end_idx ON bookings_history (booker_id, item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS bookings_end_idx ON bookings (end_date);
+
+CREATE VIEW bookings_all AS
+SELECT booking_id, start_date, end_date, item_id, booker_id, status, version FROM bookings
+UNION ALL
+SELECT booking_id, start_date, end_date, item_id, booker_id, status, version FROM bookings_history;
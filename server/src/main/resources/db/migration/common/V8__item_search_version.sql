@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS item_search_version (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO item_search_version (id, version)
+SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM item_search_version);
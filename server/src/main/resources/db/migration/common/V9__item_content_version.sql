@@ -0,0 +1 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS content_version BIGINT NOT NULL DEFAULT 0;
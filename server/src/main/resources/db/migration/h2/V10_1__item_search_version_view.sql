@@ -0,0 +1,7 @@
+ALTER SEQUENCE item_search_version_seq RESTART WITH (SELECT version + 1 FROM item_search_version);
+DROP TABLE item_search_version;
+
+CREATE VIEW item_search_version AS
+SELECT BASE_VALUE - 1 AS version
+FROM INFORMATION_SCHEMA.SEQUENCES
+WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = 'ITEM_SEARCH_VERSION_SEQ';
@@ -0,0 +1,6 @@
+SELECT setval('item_search_version_seq', version + 1, false) FROM item_search_version;
+DROP TABLE item_search_version;
+
+CREATE VIEW item_search_version AS
+SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END AS version
+FROM item_search_version_seq;
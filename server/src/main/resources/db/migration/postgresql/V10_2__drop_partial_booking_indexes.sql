@@ -0,0 +1,5 @@
+DROP INDEX IF EXISTS bookings_item_approved_start_idx;
+
+DROP INDEX IF EXISTS bookings_booker_waiting_start_idx;
+
+DROP INDEX IF EXISTS bookings_item_waiting_start_idx;
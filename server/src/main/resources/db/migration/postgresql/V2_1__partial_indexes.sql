@@ -0,0 +1,11 @@
+CREATE INDEX IF NOT EXISTS bookings_item_approved_start_idx ON bookings (item_id, start_date)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_start_idx ON bookings (booker_id, start_date)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS bookings_item_waiting_start_idx ON bookings (item_id, start_date)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS items_available_idx ON items (item_id)
+    WHERE is_available;
@@ -0,0 +1,96 @@
+-- Бронирования секционируются по месяцам начала: bookings_YYYY_MM плюс секция по умолчанию для строк
+-- без своей секции. Ключ секционирования должен входить в первичный ключ, поэтому ключ - (booking_id, start_date).
+-- Ограничение исключения на секционированную таблицу в Postgres 13 не ставится, оно создаётся в каждой секции
+-- и не видит пересечений бронирований, начинающихся в разных месяцах.
+
+CREATE OR REPLACE FUNCTION ensure_booking_partitions(from_date timestamp, to_date timestamp) RETURNS integer
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    month_start    timestamp := date_trunc('month', from_date);
+    month_end      timestamp;
+    partition_name text;
+    created        integer   := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('ensure_booking_partitions'));
+    WHILE month_start <= to_date
+        LOOP
+            month_end := month_start + interval '1 month';
+            partition_name := 'bookings_' || to_char(month_start, 'YYYY_MM');
+            IF to_regclass(partition_name) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', partition_name);
+                EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                                   '(item_id WITH =, tsrange(start_date, end_date, ''[)'') WITH &&) '
+                                   'WHERE (status = ''APPROVED'')',
+                               partition_name, partition_name || '_approved_no_overlap');
+                -- CHECK с границами секции избавляет ATTACH от проверки каждой строки
+                EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (start_date >= %L AND start_date < %L)',
+                               partition_name, partition_name || '_bounds', month_start, month_end);
+                EXECUTE format('WITH moved AS (DELETE FROM bookings_default '
+                                   'WHERE start_date >= %L AND start_date < %L RETURNING *) '
+                                   'INSERT INTO %I SELECT * FROM moved',
+                               month_start, month_end, partition_name);
+                EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+                EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition_name, partition_name || '_bounds');
+                created := created + 1;
+            END IF;
+            month_start := month_end;
+        END LOOP;
+    RETURN created;
+END
+$$;
+
+ALTER SEQUENCE bookings_seq OWNED BY NONE;
+
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+ALTER INDEX bookings_pkey RENAME TO bookings_unpartitioned_pkey;
+
+CREATE TABLE bookings (
+    booking_id BIGINT NOT NULL DEFAULT nextval('bookings_seq'),
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    item_id BIGINT NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    booker_id BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    status varchar(10) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (booking_id, start_date)
+) PARTITION BY RANGE (start_date);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+ALTER TABLE bookings_default ADD CONSTRAINT bookings_default_approved_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+    WHERE (status = 'APPROVED');
+
+SELECT ensure_booking_partitions(COALESCE(MIN(start_date), now()::timestamp), (now() + interval '3 months')::timestamp)
+FROM bookings_unpartitioned;
+
+INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status, version)
+SELECT booking_id, start_date, end_date, item_id, booker_id, status, version
+FROM bookings_unpartitioned;
+
+DROP TABLE bookings_unpartitioned;
+
+ALTER SEQUENCE bookings_seq OWNED BY bookings.booking_id;
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_item_end_idx ON bookings (booker_id, item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_id_idx ON bookings (booker_id, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_end_id_idx ON bookings (booker_id, end_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_id_idx ON bookings (item_id, start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_approved_start_idx ON bookings (item_id, start_date)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_start_idx ON bookings (booker_id, start_date)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS bookings_item_waiting_start_idx ON bookings (item_id, start_date)
+    WHERE status = 'WAITING';
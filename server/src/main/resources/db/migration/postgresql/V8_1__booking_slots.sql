@@ -0,0 +1,100 @@
+-- Ограничения секций не видят друг друга: подтверждённые бронирования одной вещи, начинающиеся в разных месяцах,
+-- могли пересекаться, а booking_id был уникален только вместе с start_date. Несекционированная таблица booking_slots
+-- повторяет интервал, вещь и статус каждого бронирования: её первичный ключ делает booking_id уникальным,
+-- а ограничение исключения проверяет пересечения подтверждённых бронирований во всех секциях сразу.
+-- Таблицу ведёт строковый триггер на bookings. Перенос строки между секциями при изменении start_date
+-- Postgres выполняет как DELETE и INSERT, триггер срабатывает на оба.
+
+CREATE TABLE IF NOT EXISTS booking_slots (
+    booking_id BIGINT PRIMARY KEY,
+    item_id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    status varchar(10) NOT NULL,
+    CONSTRAINT booking_slots_approved_no_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+        WHERE (status = 'APPROVED')
+);
+
+INSERT INTO booking_slots (booking_id, item_id, start_date, end_date, status)
+SELECT booking_id, item_id, start_date, end_date, status FROM bookings;
+
+CREATE OR REPLACE FUNCTION sync_booking_slot() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM booking_slots WHERE booking_id = OLD.booking_id;
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' THEN
+        UPDATE booking_slots
+        SET booking_id = NEW.booking_id,
+            item_id    = NEW.item_id,
+            start_date = NEW.start_date,
+            end_date   = NEW.end_date,
+            status     = NEW.status
+        WHERE booking_id = OLD.booking_id;
+        RETURN NEW;
+    END IF;
+    INSERT INTO booking_slots (booking_id, item_id, start_date, end_date, status)
+    VALUES (NEW.booking_id, NEW.item_id, NEW.start_date, NEW.end_date, NEW.status);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER bookings_sync_slot
+    AFTER INSERT OR UPDATE OR DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION sync_booking_slot();
+
+DO
+$$
+DECLARE
+    partition_name text;
+BEGIN
+    FOR partition_name IN SELECT inhrelid::regclass::text FROM pg_inherits WHERE inhparent = 'bookings'::regclass
+        LOOP
+            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I',
+                           partition_name, partition_name || '_approved_no_overlap');
+        END LOOP;
+END
+$$;
+
+-- Строки новой секции переносятся из секции по умолчанию до присоединения, когда триггер на неё ещё
+-- не распространяется: удаление из секции по умолчанию убирает их интервалы, после переноса они возвращаются.
+CREATE OR REPLACE FUNCTION ensure_booking_partitions(from_date timestamp, to_date timestamp) RETURNS integer
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    month_start    timestamp := date_trunc('month', from_date);
+    month_end      timestamp;
+    partition_name text;
+    created        integer   := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('ensure_booking_partitions'));
+    WHILE month_start <= to_date
+        LOOP
+            month_end := month_start + interval '1 month';
+            partition_name := 'bookings_' || to_char(month_start, 'YYYY_MM');
+            IF to_regclass(partition_name) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', partition_name);
+                -- CHECK с границами секции избавляет ATTACH от проверки каждой строки
+                EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (start_date >= %L AND start_date < %L)',
+                               partition_name, partition_name || '_bounds', month_start, month_end);
+                EXECUTE format('WITH moved AS (DELETE FROM bookings_default '
+                                   'WHERE start_date >= %L AND start_date < %L RETURNING *) '
+                                   'INSERT INTO %I SELECT * FROM moved',
+                               month_start, month_end, partition_name);
+                EXECUTE format('INSERT INTO booking_slots (booking_id, item_id, start_date, end_date, status) '
+                                   'SELECT booking_id, item_id, start_date, end_date, status FROM %I',
+                               partition_name);
+                EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+                EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition_name, partition_name || '_bounds');
+                created := created + 1;
+            END IF;
+            month_start := month_end;
+        END LOOP;
+    RETURN created;
+END
+$$;
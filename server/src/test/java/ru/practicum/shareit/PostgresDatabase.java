@@ -0,0 +1,125 @@
+package ru.practicum.shareit;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * PostgreSQL для тестов миграций и запросов, которые H2 не выполняет: секционирование, ограничения
+ * исключения, COPY. Сервер берётся из {@code SHAREIT_TEST_POSTGRES_URL} (вида
+ * {@code jdbc:postgresql://host:port/postgres}, пользователь и пароль - {@code SHAREIT_TEST_POSTGRES_USER}
+ * и {@code SHAREIT_TEST_POSTGRES_PASSWORD}), иначе запускается контейнер той же версии, что в
+ * docker-compose. На указанном сервере для запуска создаётся отдельная база и удаляется при выходе. Тесты, которые
+ * заполняют базу своими данными, получают ещё одну базу на том же сервере через {@link #register(DynamicPropertyRegistry, String)}.
+ * Без сервера и Docker тесты пропускаются через {@code @EnabledIf("ru.practicum.shareit.PostgresDatabase#available")}.
+ */
+public final class PostgresDatabase {
+
+    private static final String URL_VARIABLE = "SHAREIT_TEST_POSTGRES_URL";
+    private static final String IMAGE = "postgres:13.7-alpine";
+    private static final Map<String, String> DATABASES = new HashMap<>();
+
+    private static String url;
+    private static String username;
+    private static String password;
+    private static String serverUrl;
+
+    private PostgresDatabase() {
+    }
+
+    public static boolean available() {
+        return System.getenv(URL_VARIABLE) != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    /**
+     * Источник данных и реализации, которые выбираются на PostgreSQL, как в основном профиле.
+     */
+    public static void register(DynamicPropertyRegistry registry) {
+        start();
+        register(registry, () -> url);
+    }
+
+    /**
+     * То же, что {@link #register(DynamicPropertyRegistry)}, но на отдельной базе {@code database} того же сервера:
+     * её данные не видят другие тесты.
+     */
+    public static void register(DynamicPropertyRegistry registry, String database) {
+        String databaseUrl = createDatabase(database);
+        register(registry, () -> databaseUrl);
+    }
+
+    private static void register(DynamicPropertyRegistry registry, Supplier<Object> datasourceUrl) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", datasourceUrl);
+        registry.add("spring.datasource.username", () -> username);
+        registry.add("spring.datasource.password", () -> password);
+        registry.add("shareit.search.engine", () -> "postgres");
+        registry.add("shareit.bookings.partitioning", () -> "postgres");
+        registry.add("shareit.items.import.loader", () -> "copy");
+    }
+
+    public static Connection connect() throws SQLException {
+        start();
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private static synchronized void start() {
+        if (url != null) {
+            return;
+        }
+        serverUrl = System.getenv(URL_VARIABLE);
+        if (serverUrl == null) {
+            PostgreSQLContainer<?> container = new PostgreSQLContainer<>(DockerImageName.parse(IMAGE)
+                    .asCompatibleSubstituteFor("postgres"));
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+            return;
+        }
+
+        username = System.getenv().getOrDefault("SHAREIT_TEST_POSTGRES_USER", "postgres");
+        password = System.getenv().getOrDefault("SHAREIT_TEST_POSTGRES_PASSWORD", "");
+        url = create(serverUrl, "shareit_test_" + ProcessHandle.current().pid() + "_" + System.currentTimeMillis());
+    }
+
+    private static synchronized String createDatabase(String database) {
+        start();
+        return DATABASES.computeIfAbsent(database, name -> serverUrl == null
+                ? create(url, name)
+                : create(serverUrl, name + "_" + ProcessHandle.current().pid() + "_" + System.currentTimeMillis()));
+    }
+
+    /**
+     * Создаёт базу на сервере {@code existingUrl} и возвращает её адрес. На указанном сервере база удаляется при
+     * выходе, базы контейнера исчезают вместе с ним.
+     */
+    private static String create(String existingUrl, String database) {
+        execute(existingUrl, "CREATE DATABASE " + database);
+        if (serverUrl != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                    execute(serverUrl, "DROP DATABASE IF EXISTS " + database + " WITH (FORCE)")));
+        }
+        int slash = existingUrl.lastIndexOf('/');
+        int query = existingUrl.indexOf('?', slash);
+        return existingUrl.substring(0, slash + 1) + database + (query < 0 ? "" : existingUrl.substring(query));
+    }
+
+    private static void execute(String serverUrl, String sql) {
+        try (Connection connection = DriverManager.getConnection(serverUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось выполнить " + sql + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * То же, что {@link SchemaIndexesTest}, для индексов PostgreSQL с учётом частичных индексов
+ * и секционированной таблицы бронирований: планы тех же методов строятся на отдельной базе с теми же данными,
+ * а индекс секционированной таблицы виден в плане под именами своих индексов секций.
+ */
+@EnabledIf("ru.practicum.shareit.PostgresDatabase#available")
+class PostgresSchemaIndexesTest extends SchemaIndexesTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresDatabase.register(registry, "schema_indexes");
+    }
+
+    @Override
+    protected List<String> indexNames(String index) {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_class c " +
+                "WHERE c.oid = to_regclass(CAST(? AS text)) " +
+                "UNION ALL " +
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(CAST(? AS text))", String.class, index, index);
+        assertThat(names).as("индекс %s", index).isNotEmpty();
+        return names;
+    }
+
+    @Test
+    @Override
+    void noIndexRepeatsLeadingColumnsOfAnother() {
+        List<String> redundant = jdbcTemplate.queryForList("WITH btree AS (" +
+                "SELECT i.indrelid, c.relname AS index_name, " +
+                "(SELECT array_agg(a.attname ORDER BY k.position) " +
+                "FROM unnest(i.indkey) WITH ORDINALITY AS k(attnum, position) " +
+                "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = k.attnum) AS columns " +
+                "FROM pg_index i " +
+                "JOIN pg_class c ON c.oid = i.indexrelid " +
+                "JOIN pg_class t ON t.oid = i.indrelid " +
+                "JOIN pg_am am ON am.oid = c.relam " +
+                "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+                "WHERE n.nspname = current_schema() AND NOT t.relispartition AND NOT i.indisunique " +
+                "AND am.amname IN ('btree', 'gist') AND t.relname <> 'flyway_schema_history') " +
+                "SELECT a.index_name || ' -> ' || b.index_name FROM btree a " +
+                "JOIN btree b ON a.indrelid = b.indrelid AND a.index_name <> b.index_name " +
+                "AND b.columns[1:array_length(a.columns, 1)] = a.columns", String.class);
+
+        assertThat(redundant).isEmpty();
+    }
+}
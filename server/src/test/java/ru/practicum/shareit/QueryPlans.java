@@ -0,0 +1,115 @@
+package ru.practicum.shareit;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Планы запросов, которые выполняют методы репозиториев и сервисов: {@link #explain(String, Runnable)} запоминает
+ * SQL, выполненный в текущем потоке, вместе с параметрами и выполняет {@code EXPLAIN} тех запросов, которые читают
+ * указанную таблицу, с теми же параметрами. Подключается через {@code @Import(QueryPlans.Config.class)}.
+ */
+public class QueryPlans implements QueryExecutionListener {
+
+    private final ThreadLocal<List<QueryInfo>> recorded = new ThreadLocal<>();
+    private DataSource dataSource;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<QueryInfo> queries = recorded.get();
+        if (queries != null && !execInfo.isBatch()) {
+            queries.addAll(queryInfoList);
+        }
+    }
+
+    /**
+     * Планы запросов к {@code table}, выполненных {@code action}, по одному на запрос и в порядке выполнения.
+     */
+    public List<String> explain(String table, Runnable action) {
+        recorded.set(new ArrayList<>());
+        List<QueryInfo> queries;
+        try {
+            action.run();
+        } finally {
+            queries = recorded.get();
+            recorded.remove();
+        }
+
+        Pattern reads = Pattern.compile("\\b(from|join)\\s+" + Pattern.quote(table) + "\\b");
+        List<String> plans = new ArrayList<>();
+        for (QueryInfo query : queries) {
+            String sql = query.getQuery().trim();
+            if (sql.toLowerCase(Locale.ROOT).startsWith("select")
+                    && reads.matcher(sql.toLowerCase(Locale.ROOT)).find()) {
+                plans.add(explain(sql, query.getParametersList().isEmpty()
+                        ? List.of() : query.getParametersList().get(0)));
+            }
+        }
+        return plans;
+    }
+
+    private String explain(String sql, List<ParameterSetOperation> parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation parameter : parameters) {
+                parameter.getMethod().invoke(statement, parameter.getArgs());
+            }
+            List<String> lines = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    lines.add(resultSet.getString(1));
+                }
+            }
+            return String.join("\n", lines);
+        } catch (SQLException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Не удалось получить план запроса " + sql, e);
+        }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        QueryPlans queryPlans() {
+            return new QueryPlans();
+        }
+
+        @Bean
+        static BeanPostProcessor queryPlansDataSourceProxy(ObjectProvider<QueryPlans> plans) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        QueryPlans queryPlans = plans.getObject();
+                        queryPlans.dataSource = (DataSource) bean;
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .listener(queryPlans)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRecordRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Индексы из миграций: горячие запросы идут по своему индексу, и ни один индекс не повторяет
+ * ведущие колонки другого индекса той же таблицы. Планы строятся для SQL, который выполняют сами методы
+ * репозиториев и сервисов, с их параметрами, на отдельной базе с синтетическими данными и собранной
+ * статистикой: если запрос метода разойдётся с индексом, тест это увидит.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schema-indexes;DEFAULT_NULL_ORDERING=HIGH")
+@ActiveProfiles("test")
+@Import(QueryPlans.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaIndexesTest {
+
+    private static final int USERS = 2_000;
+    private static final int REQUESTS = 2_000;
+    private static final int ITEMS = 20_000;
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final int BATCH_SIZE = 5_000;
+
+    private static final long OWNER_ID = 7L;
+    private static final long BOOKER_ID = 11L;
+    private static final long REQUESTOR_ID = 13L;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    @Autowired
+    private QueryPlans queryPlans;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingRecordRepository bookingRecordRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    /**
+     * Пользователи владеют вещами поровну, каждая пятая вещь отвечает на запрос. У вещи пять непересекающихся
+     * бронирований в пределах года до и после текущего момента: третье ожидает подтверждения, у каждой десятой
+     * вещи остальные отклонены, у прочих подтверждены.
+     */
+    @BeforeAll
+    void seed() {
+        insert("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", USERS,
+                id -> new Object[]{id, "Пользователь " + id, "user" + id + "@example.com"});
+        insert("INSERT INTO requests (request_id, description, requestor_id, created_date) VALUES (?, ?, ?, ?)",
+                REQUESTS, id -> new Object[]{id, "Запрос " + id, id % USERS + 1,
+                        Timestamp.valueOf(now.minusMinutes(id))});
+        insert("INSERT INTO items (item_id, name, description, is_available, owner_id, request_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", ITEMS,
+                id -> new Object[]{id, "Вещь " + id, "Описание " + id, id % 3 != 0, id % USERS + 1,
+                        id % 5 == 0 ? id / 5 % REQUESTS + 1 : null});
+        insert("INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", ITEMS * BOOKINGS_PER_ITEM,
+                id -> {
+                    long itemId = (id - 1) / BOOKINGS_PER_ITEM + 1;
+                    long slot = (id - 1) % BOOKINGS_PER_ITEM;
+                    LocalDateTime start = now.minusDays(365).plusDays(slot * 146 + itemId % 100);
+                    String status = slot == 2 ? BookingStatus.WAITING.name()
+                            : itemId % 10 == 0 ? BookingStatus.REJECTED.name() : BookingStatus.APPROVED.name();
+                    return new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), itemId,
+                            (itemId * 7 + slot) % USERS + 1, status};
+                });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void waitingBookerBookingsUseBookerStatusIndex() {
+        assertUsesIndex(queryPlans.explain("bookings", () ->
+                        bookingService.getUserBookings(BOOKER_ID, "WAITING", 0, 10, BookingSort.START_DESC)),
+                "bookings_booker_status_start_idx");
+    }
+
+    @Test
+    void lastAndNextSlotsUseItemStatusIndex() {
+        List<Long> itemIds = LongStream.rangeClosed(1, 10).map(i -> OWNER_ID + i * USERS).boxed()
+                .collect(Collectors.toList());
+        assertUsesIndex(queryPlans.explain("bookings_all", () ->
+                        bookingRecordRepository.findLastAndNextSlots(itemIds, now, BookingStatus.APPROVED)),
+                "bookings_item_status_start_idx");
+    }
+
+    @Test
+    void admissionIntervalsUseItemStatusIndex() {
+        assertUsesIndex(queryPlans.explain("bookings", () ->
+                        bookingRepository.findByItemIdAndStatusAndEndAfter(OWNER_ID, BookingStatus.APPROVED, now)),
+                "bookings_item_status_start_idx");
+    }
+
+    @Test
+    void finishedBookingCheckUsesBookerItemIndex() {
+        assertUsesIndex(queryPlans.explain("bookings_all", () ->
+                        bookingRecordRepository.existsByBookerIdAndItemIdAndEndBeforeAndStatus(BOOKER_ID, 2L, now,
+                                BookingStatus.APPROVED)),
+                "bookings_booker_item_end_idx");
+    }
+
+    @Test
+    void bookerKeysetPagesUseBookerStartIndex() {
+        assertUsesIndex(queryPlans.explain("bookings", () ->
+                        bookingService.getUserBookingsPage(BOOKER_ID, "FUTURE", null, 10, BookingSort.START_DESC)),
+                "bookings_booker_start_id_idx");
+    }
+
+    @Test
+    void ownerItemKeysetPagesUseOwnerIndex() {
+        assertUsesIndex(queryPlans.explain("items", () ->
+                        itemService.getItemsPage(OWNER_ID, null, 10, ItemSort.ID_ASC)),
+                "items_owner_id_idx");
+    }
+
+    @Test
+    void requestAnswersUseRequestIndex() {
+        assertUsesIndex(queryPlans.explain("items", () ->
+                        itemRepository.findDtoByRequestIdIn(List.of(1L, 2L, 3L))),
+                "items_request_idx");
+    }
+
+    @Test
+    void requestorRequestsUseRequestorIndex() {
+        assertUsesIndex(queryPlans.explain("requests", () ->
+                        requestRepository.findByRequestorIdOrderByCreatedDesc(REQUESTOR_ID)),
+                "requests_requestor_created_idx");
+    }
+
+    @Test
+    void noIndexRepeatsLeadingColumnsOfAnother() {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        Map<String, String> tables = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT table_name, index_name, column_name FROM information_schema.index_columns " +
+                "WHERE table_schema = 'PUBLIC' AND index_name LIKE '%\\_IDX' ESCAPE '\\' " +
+                "ORDER BY table_name, index_name, ordinal_position", row -> {
+                    String index = row.getString("index_name");
+                    tables.put(index, row.getString("table_name"));
+                    columns.computeIfAbsent(index, key -> new ArrayList<>()).add(row.getString("column_name"));
+                });
+
+        List<String> redundant = new ArrayList<>();
+        columns.forEach((index, indexColumns) -> columns.forEach((other, otherColumns) -> {
+            if (!index.equals(other) && tables.get(index).equals(tables.get(other))
+                    && otherColumns.size() >= indexColumns.size()
+                    && otherColumns.subList(0, indexColumns.size()).equals(indexColumns)) {
+                redundant.add(index + " -> " + other);
+            }
+        }));
+        assertThat(columns).isNotEmpty();
+        assertThat(redundant).isEmpty();
+    }
+
+    /**
+     * Имена, под которыми индекс виден в планах. H2 сам создаёт индекс для каждого внешнего ключа, и для условия
+     * по его колонке такой индекс равноценен индексу, который начинается с той же колонки.
+     */
+    protected List<String> indexNames(String index) {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT c.index_name, c.column_name FROM information_schema.index_columns c " +
+                "WHERE c.table_schema = 'PUBLIC' AND c.table_name = (SELECT table_name " +
+                "FROM information_schema.indexes WHERE table_schema = 'PUBLIC' AND index_name = ?) " +
+                "ORDER BY c.index_name, c.ordinal_position", row -> {
+                    columns.computeIfAbsent(row.getString("index_name").toLowerCase(Locale.ROOT),
+                            key -> new ArrayList<>()).add(row.getString("column_name"));
+                }, index.toUpperCase(Locale.ROOT));
+
+        List<String> expected = columns.get(index);
+        assertThat(expected).as("индекс %s", index).isNotNull();
+        return columns.entrySet().stream()
+                .filter(entry -> entry.getValue().size() <= expected.size()
+                        && expected.subList(0, entry.getValue().size()).equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private void assertUsesIndex(List<String> plans, String index) {
+        assertThat(plans).isNotEmpty();
+        List<String> names = indexNames(index);
+        String plan = plans.get(0).toLowerCase(Locale.ROOT);
+        assertThat(names).as("план %s", plans.get(0)).anyMatch(plan::contains);
+    }
+
+    private void insert(String sql, int rows, LongFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(row.apply(id));
+            if (batch.size() == BATCH_SIZE || id == rows) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Решение по бронированию без {@code approved} отклоняется с 400, а бронирование остаётся ожидающим.
+ * Пакет запросов бронирования, где у запроса нет начала, конца или ID вещи, отклоняется с 400 целиком.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingDecisionValidationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    private final String prefix = "decision-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void createBooking() {
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Арендатор", prefix + "booker@example.com"))
+                .getId();
+        itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null))
+                .getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingId = bookingService.requestBooking(bookerId, new BookingDtoRequest(null, start, start.plusHours(1),
+                itemId)).getId();
+    }
+
+    @Test
+    void batchDecisionWithoutApprovedIsBadRequest() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\": " + bookingId + "}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").isNotEmpty());
+
+        assertWaiting();
+    }
+
+    @Test
+    void decisionWithoutApprovedIsBadRequest() throws Exception {
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .param("approved", ""))
+                .andExpect(status().isBadRequest());
+
+        assertWaiting();
+    }
+
+    @Test
+    void batchRequestWithoutStartEndOrItemIsBadRequest() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        String valid = "{\"start\": \"" + start + "\", \"end\": \"" + start.plusHours(1) + "\", " +
+                "\"itemId\": " + itemId + "}";
+        for (String invalid : new String[]{
+                "{\"end\": \"" + start.plusHours(3) + "\", \"itemId\": " + itemId + "}",
+                "{\"start\": \"" + start.plusHours(2) + "\", \"itemId\": " + itemId + "}",
+                "{\"start\": \"" + start.plusHours(2) + "\", \"end\": \"" + start.plusHours(3) + "\"}"}) {
+            mockMvc.perform(post("/bookings/batch")
+                            .header("X-Sharer-User-Id", bookerId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + valid + ", " + invalid + "]"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").isNotEmpty());
+        }
+
+        assertThat(bookingService.getUserBookings(bookerId, "ALL", 0, 10, BookingSort.START_DESC)).hasSize(1);
+    }
+
+    private void assertWaiting() {
+        assertThat(bookingService.getBooking(ownerId, bookingId).getStatus()).isEqualTo(BookingStatus.WAITING);
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Подтверждение бронирований из сотен потоков: на одной вещи проходит ровно одно из пересекающихся,
+ * на разных вещах подтверждения не мешают друг другу. Кэш интервалов ограничен десятью вещами,
+ * чтобы вытеснение происходило во время проверки.
+ */
+@SpringBootTest(properties = "shareit.bookings.admission.spec=maximumSize=10,expireAfterAccess=1h")
+@ActiveProfiles("test")
+class BookingAdmissionTest {
+
+    private static final int THREADS = 200;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String prefix = "admission-" + System.nanoTime() + "-";
+    private final AtomicInteger names = new AtomicInteger();
+    private Long ownerId;
+    private Long bookerId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void createUsers() {
+        ownerId = createUser();
+        bookerId = createUser();
+        start = LocalDateTime.now().plusDays(1 + names.get());
+    }
+
+    @Test
+    void concurrentOverlappingApprovalsOnOneItemAdmitOne() throws Exception {
+        Long itemId = createItem();
+        List<BookingDtoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            requests.add(new BookingDtoRequest(null, start.plusSeconds(i), start.plusHours(2).plusSeconds(i), itemId));
+        }
+        List<Long> bookingIds = request(bookerId, requests);
+
+        List<Boolean> outcomes = confirmConcurrently(bookingIds);
+
+        assertThat(outcomes.stream().filter(Boolean::booleanValue).count()).isEqualTo(1);
+        assertThat(approvedCount(List.of(itemId))).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.bookings.admission.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void concurrentApprovalsOnDifferentItemsDoNotInterfere() throws Exception {
+        int items = 50;
+        int slots = 4;
+        List<Long> itemIds = new ArrayList<>();
+        List<BookingDtoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Long itemId = createItem();
+            itemIds.add(itemId);
+            for (int slot = 0; slot < slots; slot++) {
+                LocalDateTime slotStart = start.plusDays(slot);
+                requests.add(new BookingDtoRequest(null, slotStart, slotStart.plusHours(3), itemId));
+                requests.add(new BookingDtoRequest(null, slotStart.plusHours(1), slotStart.plusHours(4), itemId));
+            }
+        }
+        List<Long> bookingIds = request(bookerId, requests);
+        Collections.shuffle(bookingIds);
+
+        List<Boolean> outcomes = confirmConcurrently(bookingIds);
+
+        assertThat(outcomes.stream().filter(Boolean::booleanValue).count()).isEqualTo(items * slots);
+        assertThat(approvedCount(itemIds)).isEqualTo(items * slots);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings a JOIN bookings b " +
+                "ON a.item_id = b.item_id AND a.booking_id < b.booking_id " +
+                "AND a.start_date < b.end_date AND b.start_date < a.end_date " +
+                "WHERE a.status = 'APPROVED' AND b.status = 'APPROVED' AND a.booker_id = ?", Long.class, bookerId))
+                .isZero();
+        assertThat(meterRegistry.get("shareit.bookings.admission.pending").gauge().value()).isZero();
+        assertThat(waitForCachedItems(10)).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void deletedBookerNoLongerBlocksInterval() {
+        Long itemId = createItem();
+        Long removedBookerId = createUser();
+        BookingDtoRequest slot = new BookingDtoRequest(null, start, start.plusHours(2), itemId);
+        bookingService.confirmBooking(ownerId, request(removedBookerId, List.of(slot)).get(0), true);
+
+        userService.deleteUser(removedBookerId);
+        Long bookingId = request(bookerId, List.of(slot)).get(0);
+
+        assertThat(bookingService.confirmBooking(ownerId, bookingId, true).getId()).isEqualTo(bookingId);
+    }
+
+    private List<Boolean> confirmConcurrently(List<Long> bookingIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Callable<Boolean>> tasks = bookingIds.stream()
+                    .map(bookingId -> (Callable<Boolean>) () -> {
+                        ready.await();
+                        try {
+                            bookingService.confirmBooking(ownerId, bookingId, true);
+                            return true;
+                        } catch (NotAvailableException e) {
+                            return false;
+                        }
+                    })
+                    .collect(Collectors.toList());
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            ready.countDown();
+            List<Boolean> outcomes = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                outcomes.add(future.get(2, TimeUnit.MINUTES));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double waitForCachedItems(int limit) throws InterruptedException {
+        double cached = meterRegistry.get("shareit.bookings.admission.items").gauge().value();
+        for (int i = 0; i < 50 && cached > limit; i++) {
+            Thread.sleep(100);
+            cached = meterRegistry.get("shareit.bookings.admission.items").gauge().value();
+        }
+        return cached;
+    }
+
+    private List<Long> request(Long userId, List<BookingDtoRequest> requests) {
+        List<BookingBatchResult> results = bookingService.requestBookings(userId, requests);
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(200));
+        return results.stream()
+                .map(result -> result.getBooking().getId())
+                .collect(Collectors.toList());
+    }
+
+    private long approvedCount(List<Long> itemIds) {
+        return itemIds.stream()
+                .mapToLong(itemId -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings " +
+                        "WHERE item_id = ? AND status = 'APPROVED'", Long.class, itemId))
+                .sum();
+    }
+
+    private Long createUser() {
+        String name = prefix + names.incrementAndGet();
+        return userService.createUser(new UserDto(null, name, name + "@example.com")).getId();
+    }
+
+    private Long createItem() {
+        return itemService.addItem(ownerId, new ItemDto(null, prefix + names.incrementAndGet(), "Описание", true,
+                null)).getId();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingArchivedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Архивация на H2 в отдельной базе: завершившиеся бронирования переносятся порциями по две строки
+ * из {@code bookings} в {@code bookings_history}, ожидающие и недавние остаются. Списки и чтение по ID
+ * через {@code bookings_all} видят архивные бронирования, а подтвердить архивное бронирование нельзя.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-archiver;DEFAULT_NULL_ORDERING=HIGH",
+        "shareit.bookings.archive.enabled=true",
+        "shareit.bookings.archive.age=P1D",
+        "shareit.bookings.archive.batch-size=2",
+        "shareit.bookings.archive.interval=PT1H"})
+@ActiveProfiles("test")
+class BookingArchiverTest {
+
+    private static final int ARCHIVABLE = 5;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "h2-archiver-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long bookerId;
+    private List<Long> archivable;
+    private Long waiting;
+    private Long recent;
+
+    @BeforeEach
+    void createBookings() {
+        User owner = userRepository.save(new User(null, "Владелец", prefix + "owner@example.com", 0));
+        User booker = userRepository.save(new User(null, "Арендатор", prefix + "booker@example.com", 0));
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        Item item = itemRepository.save(new Item(null, prefix + "вещь", "Описание", true, owner, null, 0, 0));
+
+        LocalDateTime now = LocalDateTime.now();
+        archivable = new ArrayList<>();
+        for (int i = 0; i < ARCHIVABLE; i++) {
+            LocalDateTime start = now.minusDays(40 - i * 3L);
+            archivable.add(saveBooking(item, booker, start, start.plusDays(1), BookingStatus.APPROVED));
+        }
+        waiting = saveBooking(item, booker, now.minusDays(50), now.minusDays(49), BookingStatus.WAITING);
+        recent = saveBooking(item, booker, now.minusHours(5), now.minusHours(1), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void archiveMovesFinishedBookingsInChunks() {
+        bookingArchiver.archive();
+
+        for (Long id : archivable) {
+            assertThat(count("bookings", id)).isZero();
+            assertThat(count("bookings_history", id)).isEqualTo(1);
+        }
+        assertThat(count("bookings", waiting)).isEqualTo(1);
+        assertThat(count("bookings", recent)).isEqualTo(1);
+        assertThat(count("bookings_history", waiting)).isZero();
+        assertThat(count("bookings_history", recent)).isZero();
+    }
+
+    @Test
+    void archivedBookingsAreReadThroughBookingsAll() {
+        bookingArchiver.archive();
+        Long archived = archivable.get(0);
+
+        BookingDtoResponse booking = bookingService.getBooking(bookerId, archived);
+        assertThat(booking.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(booking.getItem().getName()).isEqualTo(prefix + "вещь");
+        assertThat(ids(bookingService.getUserBookings(bookerId, "PAST", 0, 20, BookingSort.START_DESC)))
+                .containsAll(archivable)
+                .contains(recent);
+        assertThat(ids(bookingService.getOwnerBookings(ownerId, "ALL", 0, 20, BookingSort.START_DESC)))
+                .containsAll(archivable)
+                .contains(waiting, recent);
+        assertThatThrownBy(() -> bookingService.confirmBooking(ownerId, archived, false))
+                .isInstanceOf(BookingArchivedException.class);
+    }
+
+    private Long saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status, 0)).getId();
+    }
+
+    private long count(String table, Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE booking_id = ?", Long.class,
+                bookingId);
+    }
+
+    private static List<Long> ids(List<BookingDtoResponse> bookings) {
+        return bookings.stream().map(BookingDtoResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пакетное создание бронирований уходит в БД пакетами по {@code hibernate.jdbc.batch_size}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingBatchInsertTest {
+
+    private static final int ITEMS = 60;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BatchLog batchLog;
+
+    private final String prefix = "batch-insert-" + System.nanoTime() + "-";
+    private Long bookerId;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeAll
+    void createItems() {
+        Long ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Арендатор", prefix + "booker@example.com")).getId();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.addItem(ownerId,
+                    new ItemDto(null, prefix + i, "Описание " + i, true, null)).getId());
+        }
+    }
+
+    @Test
+    void requestBookingsInsertsInBatches() {
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        List<BookingDtoRequest> bookings = new ArrayList<>();
+        for (int i = 0; i < 2 * ITEMS; i++) {
+            bookings.add(new BookingDtoRequest(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    itemIds.get(i % ITEMS)));
+        }
+        batchLog.clear();
+
+        List<BookingBatchResult> results = bookingService.requestBookings(bookerId, bookings);
+
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(200));
+        List<Integer> batches = batchLog.batchSizes("insert into bookings");
+        assertThat(batches).hasSize((bookings.size() + BATCH_SIZE - 1) / BATCH_SIZE);
+        assertThat(batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(bookings.size());
+    }
+
+    /**
+     * Пакеты JDBC, выполненные через пул: размер каждого {@code executeBatch} и его запрос.
+     */
+    static class BatchLog implements QueryExecutionListener {
+
+        private final List<ExecutionInfo> executions = new CopyOnWriteArrayList<>();
+        private final List<String> queries = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (execInfo.isBatch()) {
+                executions.add(execInfo);
+                queries.add(queryInfoList.get(0).getQuery());
+            }
+        }
+
+        List<Integer> batchSizes(String queryPrefix) {
+            List<Integer> sizes = new ArrayList<>();
+            for (int i = 0; i < executions.size(); i++) {
+                if (queries.get(i).trim().toLowerCase().startsWith(queryPrefix)) {
+                    sizes.add(executions.get(i).getBatchSize());
+                }
+            }
+            return sizes;
+        }
+
+        void clear() {
+            executions.clear();
+            queries.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class BatchLogConfig {
+
+        @Bean
+        BatchLog batchLog() {
+            return new BatchLog();
+        }
+
+        @Bean
+        static BeanPostProcessor batchLogDataSourceProxy(ObjectProvider<BatchLog> log) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .listener(log.getObject())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.config.SqlStatementCounter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Страницы бронирований по курсору загружают вещь, её владельца и автора бронирования тем же запросом,
+ * что и строки страницы: число SQL-запросов не зависит от размера страницы, хотя у каждой строки
+ * свой владелец или свой автор.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingStatementCountTest {
+
+    private static final int USERS = 30;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private final String prefix = "booking-statements-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long bookerId;
+
+    @BeforeAll
+    void createBookings() {
+        List<Long> ownerIds = new ArrayList<>();
+        List<Long> bookerIds = new ArrayList<>();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            ownerIds.add(userService.createUser(new UserDto(null, "Владелец " + i,
+                    prefix + "owner" + i + "@example.com")).getId());
+            bookerIds.add(userService.createUser(new UserDto(null, "Арендатор " + i,
+                    prefix + "booker" + i + "@example.com")).getId());
+            itemIds.add(itemService.addItem(ownerIds.get(i),
+                    new ItemDto(null, prefix + i, "Описание " + i, true, null)).getId());
+        }
+        ownerId = ownerIds.get(0);
+        bookerId = bookerIds.get(0);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < USERS; i++) {
+            bookingService.requestBookings(bookerId, List.of(
+                    new BookingDtoRequest(null, now.minusDays(i + 2), now.minusDays(i + 1), itemIds.get(i)),
+                    new BookingDtoRequest(null, now.plusDays(i + 1), now.plusDays(i + 2), itemIds.get(i))));
+        }
+        for (int i = 1; i < USERS; i++) {
+            bookingService.requestBookings(bookerIds.get(i), List.of(
+                    new BookingDtoRequest(null, now.minusYears(1).minusDays(i + 1), now.minusYears(1).minusDays(i),
+                            itemIds.get(0)),
+                    new BookingDtoRequest(null, now.plusYears(1).plusDays(i), now.plusYears(1).plusDays(i + 1),
+                            itemIds.get(0))));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"FUTURE", "PAST"})
+    void userBookingsPageRunsSameNumberOfStatementsForAnyPageSize(String state) {
+        assertSameStatementCount(size -> bookingService.getUserBookingsPage(bookerId, state, null, size,
+                BookingSort.START_DESC));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"FUTURE", "PAST"})
+    void ownerBookingsPageRunsSameNumberOfStatementsForAnyPageSize(String state) {
+        assertSameStatementCount(size -> bookingService.getOwnerBookingsPage(ownerId, state, null, size,
+                BookingSort.START_DESC));
+    }
+
+    private void assertSameStatementCount(IntFunction<CursorPage<BookingDtoResponse>> page) {
+        page.apply(USERS);
+        List<Integer> counts = new ArrayList<>();
+        for (int size : new int[]{1, 10, USERS}) {
+            sqlStatementCounter.start();
+            List<BookingDtoResponse> bookings = page.apply(size).getContent();
+            counts.add(sqlStatementCounter.finish());
+
+            assertThat(bookings).hasSize(size);
+            assertThat(bookings).allSatisfy(booking -> {
+                assertThat(booking.getItem().getName()).startsWith(prefix);
+                assertThat(booking.getBooker().getName()).isNotNull();
+            });
+        }
+
+        assertThat(counts).containsOnly(counts.get(0));
+    }
+}
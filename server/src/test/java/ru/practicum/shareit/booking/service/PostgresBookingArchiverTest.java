@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.PostgresDatabase;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingArchivedException;
+import ru.practicum.shareit.exception.BookingNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Архивация на секционированной таблице {@code bookings}: порции по две строки блокируются
+ * ({@code SELECT ... FOR UPDATE}), копируются в {@code bookings_history} и удаляются. Заблокированное
+ * другой транзакцией бронирование переносится после её фиксации вместе с её изменением. Архивное
+ * бронирование читается по ID, а подтвердить его нельзя.
+ */
+@SpringBootTest(properties = {
+        "shareit.bookings.archive.enabled=true",
+        "shareit.bookings.archive.age=P1D",
+        "shareit.bookings.archive.batch-size=2",
+        "shareit.bookings.archive.interval=PT1H"})
+@ActiveProfiles("test")
+@EnabledIf("ru.practicum.shareit.PostgresDatabase#available")
+class PostgresBookingArchiverTest {
+
+    private static final int ARCHIVABLE = 5;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresDatabase.register(registry);
+    }
+
+    private final String prefix = "archiver-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long strangerId;
+    private List<Long> archivable;
+    private Long waiting;
+    private Long recent;
+
+    @BeforeEach
+    void createBookings() {
+        ownerId = createUser("owner");
+        Long bookerId = createUser("booker");
+        strangerId = createUser("stranger");
+        Long itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null))
+                .getId();
+        LocalDateTime now = LocalDateTime.now();
+        archivable = new ArrayList<>();
+        for (int i = 0; i < ARCHIVABLE; i++) {
+            LocalDateTime start = now.minusDays(40 - i * 3L);
+            archivable.add(insertBooking(itemId, bookerId, start, start.plusDays(1), BookingStatus.APPROVED));
+        }
+        waiting = insertBooking(itemId, bookerId, now.minusDays(50), now.minusDays(49), BookingStatus.WAITING);
+        recent = insertBooking(itemId, bookerId, now.minusHours(5), now.minusHours(1), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void archiveMovesFinishedBookingsAfterConcurrentLock() throws Exception {
+        Long locked = archivable.get(2);
+        CompletableFuture<Void> archive;
+        try (Connection connection = PostgresDatabase.connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE bookings SET version = version + 1 WHERE booking_id = ?")) {
+                update.setLong(1, locked);
+                update.executeUpdate();
+            }
+            archive = CompletableFuture.runAsync(bookingArchiver::archive);
+            TimeUnit.MILLISECONDS.sleep(500);
+            assertThat(archive).isNotDone();
+            connection.commit();
+        }
+        archive.get(30, TimeUnit.SECONDS);
+
+        for (Long id : archivable) {
+            assertThat(count("bookings", id)).isZero();
+            assertThat(count("booking_slots", id)).isZero();
+            assertThat(count("bookings_history", id)).isEqualTo(1);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM bookings_history WHERE booking_id = ?",
+                Long.class, locked)).isEqualTo(1);
+        assertThat(count("bookings", waiting)).isEqualTo(1);
+        assertThat(count("bookings", recent)).isEqualTo(1);
+    }
+
+    @Test
+    void archivedBookingIsReadableButNotConfirmable() {
+        bookingArchiver.archive();
+        Long archived = archivable.get(0);
+
+        assertThat(bookingService.getBooking(ownerId, archived).getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThatThrownBy(() -> bookingService.confirmBooking(ownerId, archived, false))
+                .isInstanceOf(BookingArchivedException.class);
+        assertThatThrownBy(() -> bookingService.confirmBooking(strangerId, archived, false))
+                .isInstanceOf(BookingNotFoundException.class);
+
+        List<BookingBatchResult> results = bookingService.confirmBookings(ownerId,
+                List.of(new BookingDecisionDto(archived, false)));
+        assertThat(results.get(0).getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bookings_history WHERE booking_id = ?",
+                String.class, archived)).isEqualTo(BookingStatus.APPROVED.name());
+    }
+
+    private Long insertBooking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end,
+                               BookingStatus status) {
+        return jdbcTemplate.queryForObject("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, ?) RETURNING booking_id", Long.class, Timestamp.valueOf(start),
+                Timestamp.valueOf(end), itemId, bookerId, status.name());
+    }
+
+    private long count(String table, Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE booking_id = ?", Long.class,
+                bookingId);
+    }
+
+    private Long createUser(String role) {
+        return userService.createUser(new UserDto(null, "Пользователь", prefix + role + "@example.com")).getId();
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.PostgresDatabase;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Пересечения подтверждённых бронирований на секционированной таблице {@code bookings}: бронирования
+ * одной вещи, начинающиеся в разных месячных секциях, конфликтуют, а ID бронирования уникален во всех
+ * секциях. Проверяется ограничение БД, поэтому подтверждение выполняется в обход допуска сервера.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIf("ru.practicum.shareit.PostgresDatabase#available")
+class PostgresBookingOverlapTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresDatabase.register(registry);
+    }
+
+    private final String prefix = "overlap-" + System.nanoTime() + "-";
+    private final int year = LocalDateTime.now().getYear() + 2;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void createItem() {
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Арендатор", prefix + "booker@example.com")).getId();
+        itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null)).getId();
+    }
+
+    @Test
+    void overlapAcrossMonthPartitionsIsRejected() {
+        Long january = request(LocalDateTime.of(year, 1, 30, 12, 0), LocalDateTime.of(year, 2, 2, 12, 0));
+        Long february = request(LocalDateTime.of(year, 2, 1, 10, 0), LocalDateTime.of(year, 2, 1, 18, 0));
+        jdbcTemplate.queryForObject("SELECT ensure_booking_partitions(?, ?)", Integer.class,
+                Timestamp.valueOf(LocalDateTime.of(year, 1, 1, 0, 0)),
+                Timestamp.valueOf(LocalDateTime.of(year, 2, 1, 0, 0)));
+        assertThat(partitionOf(january)).isEqualTo("bookings_" + year + "_01");
+        assertThat(partitionOf(february)).isEqualTo("bookings_" + year + "_02");
+
+        approve(january);
+
+        assertThatThrownBy(() -> approve(february)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE booking_id = ?", String.class,
+                february)).isEqualTo("WAITING");
+    }
+
+    @Test
+    void bookingIdIsUniqueAcrossPartitions() {
+        Long booking = request(LocalDateTime.of(year, 3, 10, 12, 0), LocalDateTime.of(year, 3, 11, 12, 0));
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO bookings (booking_id, start_date, end_date, "
+                        + "item_id, booker_id, status) VALUES (?, ?, ?, ?, ?, 'WAITING')", booking,
+                Timestamp.valueOf(LocalDateTime.of(year, 5, 10, 12, 0)),
+                Timestamp.valueOf(LocalDateTime.of(year, 5, 11, 12, 0)), itemId, bookerId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void movedAndDeletedBookingsKeepSlotsInSync() {
+        Long booking = request(LocalDateTime.of(year, 6, 10, 12, 0), LocalDateTime.of(year, 6, 11, 12, 0));
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ? WHERE booking_id = ?",
+                Timestamp.valueOf(LocalDateTime.of(year, 7, 10, 12, 0)),
+                Timestamp.valueOf(LocalDateTime.of(year, 7, 11, 12, 0)), booking);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT start_date FROM booking_slots WHERE booking_id = ?",
+                Timestamp.class, booking).toLocalDateTime()).isEqualTo(LocalDateTime.of(year, 7, 10, 12, 0));
+
+        jdbcTemplate.update("DELETE FROM bookings WHERE booking_id = ?", booking);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_slots WHERE booking_id = ?",
+                Long.class, booking)).isZero();
+    }
+
+    private Long request(LocalDateTime start, LocalDateTime end) {
+        return bookingService.requestBooking(bookerId, new BookingDtoRequest(null, start, end, itemId)).getId();
+    }
+
+    private void approve(Long bookingId) {
+        jdbcTemplate.update("UPDATE bookings SET status = 'APPROVED' WHERE booking_id = ?", bookingId);
+    }
+
+    private String partitionOf(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bookings WHERE booking_id = ?",
+                String.class, bookingId);
+    }
+}
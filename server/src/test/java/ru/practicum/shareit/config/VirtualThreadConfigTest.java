@@ -0,0 +1,119 @@
+package ru.practicum.shareit.config;
+
+import org.apache.tomcat.util.threads.TaskThread;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.test.context.assertj.AssertableWebApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Режимы {@code shareit.threads.mode}: в режиме platform исполнитель не создаётся, в режиме virtual
+ * запросы обрабатываются в виртуальных потоках, а на JDK без них приложение не запускается.
+ * Какие потоки получает запущенный Tomcat, проверяется на любом JDK: в режиме platform это пул потоков
+ * платформы самого Tomcat, в режиме virtual на Java 21+ - исполнитель виртуальных потоков.
+ */
+class VirtualThreadConfigTest {
+
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+    private final WebApplicationContextRunner webRunner =
+            new WebApplicationContextRunner(AnnotationConfigServletWebServerApplicationContext::new)
+                    .withConfiguration(AutoConfigurations.of(ServletWebServerFactoryAutoConfiguration.class))
+                    .withUserConfiguration(VirtualThreadConfig.class)
+                    .withPropertyValues("server.port=0");
+
+    @Test
+    void platformModeKeepsDefaultExecutor() {
+        runner.withPropertyValues("shareit.threads.mode=platform")
+                .run(context -> assertThat(context)
+                        .hasNotFailed()
+                        .doesNotHaveBean(VirtualThreadConfig.class)
+                        .doesNotHaveBean(ExecutorService.class));
+    }
+
+    @Test
+    void platformModeKeepsTomcatPlatformThreads() {
+        webRunner.withPropertyValues("shareit.threads.mode=platform")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    Thread worker = runOn(tomcatExecutor(context));
+                    assertThat(worker).isInstanceOf(TaskThread.class);
+                    assertThat(worker.getName()).startsWith("http-nio-");
+                    assertThat(isVirtual(worker)).isFalse();
+                });
+    }
+
+    @Test
+    void virtualModeFailsWithoutVirtualThreads() {
+        assumeTrue(Runtime.version().feature() < VIRTUAL_THREADS_FEATURE);
+
+        runner.withPropertyValues("shareit.threads.mode=virtual")
+                .run(context -> assertThat(context)
+                        .hasFailed()
+                        .getFailure()
+                        .getRootCause()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("Java " + VIRTUAL_THREADS_FEATURE));
+    }
+
+    @Test
+    void virtualModeRunsTasksInVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE);
+
+        runner.withPropertyValues("shareit.threads.mode=virtual")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    Thread worker = context.getBean(ExecutorService.class)
+                            .submit(Thread::currentThread)
+                            .get();
+                    assertThat(isVirtual(worker)).isTrue();
+                });
+    }
+
+    @Test
+    void virtualModeHandsVirtualThreadsToTomcat() {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE);
+
+        webRunner.withPropertyValues("shareit.threads.mode=virtual")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    Executor executor = tomcatExecutor(context);
+                    assertThat(executor).isSameAs(context.getBean(ExecutorService.class));
+                    assertThat(isVirtual(runOn(executor))).isTrue();
+                });
+    }
+
+    private static Executor tomcatExecutor(AssertableWebApplicationContext context) {
+        TomcatWebServer webServer = (TomcatWebServer) context
+                .getSourceApplicationContext(ServletWebServerApplicationContext.class)
+                .getWebServer();
+        return webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+    }
+
+    private static Thread runOn(Executor executor) throws Exception {
+        CompletableFuture<Thread> worker = new CompletableFuture<>();
+        executor.execute(() -> worker.complete(Thread.currentThread()));
+        return worker.get();
+    }
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        if (Runtime.version().feature() < VIRTUAL_THREADS_FEATURE) {
+            return false;
+        }
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag и тело ответа {@code GET /items/{itemId}} строятся по одному чтению версий вещи: после изменения
+ * новый ETag приходит с новым телом, даже если в кэше {@code items} остался старый снимок (вещь изменил
+ * другой экземпляр сервера), а с этим ETag запрос получает 304.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "etag-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long itemId;
+
+    @BeforeEach
+    void createItem() {
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null)).getId();
+    }
+
+    @Test
+    void editedItemIsServedWithNewTag() throws Exception {
+        String tagBefore = getItem(null).getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"Новое описание\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult edited = getItem(tagBefore);
+        assertThat(edited.getResponse().getStatus()).isEqualTo(200);
+        assertThat(edited.getResponse().getContentAsString(StandardCharsets.UTF_8)).contains("Новое описание");
+        String tagAfter = edited.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(tagAfter).isNotEqualTo(tagBefore);
+        assertThat(getItem(tagAfter).getResponse().getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void staleCachedSnapshotIsNotServedWithNewTag() throws Exception {
+        String tagBefore = getItem(null).getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(itemRepository.getCachedItem(itemId).getDescription()).isEqualTo("Описание");
+
+        jdbcTemplate.update("UPDATE items SET description = ?, version = version + 1 WHERE item_id = ?",
+                "Изменено другим экземпляром", itemId);
+
+        MvcResult edited = getItem(tagBefore);
+        assertThat(edited.getResponse().getStatus()).isEqualTo(200);
+        String tagAfter = edited.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(tagAfter).isNotEqualTo(tagBefore);
+        assertThat(edited.getResponse().getContentAsString(StandardCharsets.UTF_8)).contains("Изменено другим экземпляром");
+        assertThat(itemRepository.getCachedItem(itemId).getDescription()).isEqualTo("Изменено другим экземпляром");
+        assertThat(getItem(tagAfter).getResponse().getStatus()).isEqualTo(304);
+    }
+
+    private MvcResult getItem(String ifNoneMatch) throws Exception {
+        if (ifNoneMatch == null) {
+            return mockMvc.perform(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", ownerId)).andReturn();
+        }
+        return mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andReturn();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemVersions;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Пока владелец редактирует вещь, другая транзакция увеличивает версию содержимого (новый отзыв, подтверждённое
+ * бронирование): редактирование сохраняется, а ETag вещи меняется от обоих изменений. Два одновременных
+ * редактирования одной вещи не перезаписывают друг друга: второе к фиксации получает 409.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemEditConcurrencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @SpyBean
+    private ItemVersions itemVersions;
+
+    private final String prefix = "conflict-" + System.nanoTime() + "-";
+
+    @Test
+    void concurrentContentChangeDoesNotFailEdit() throws Exception {
+        Long ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        Long itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null))
+                .getId();
+        String tagBefore = mockMvc.perform(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", ownerId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                    status -> itemRepository.incrementContentVersion(itemId))).get();
+            return invocation.callRealMethod();
+        }).when(itemVersions).itemAndSearchChanged(anyLong());
+
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"Новое описание\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Новое описание"));
+
+        Item item = itemRepository.getExistingItem(itemId);
+        assertThat(item.getDescription()).isEqualTo("Новое описание");
+        assertThat(item.getVersion()).isEqualTo(1);
+        assertThat(item.getContentVersion()).isEqualTo(1);
+        mockMvc.perform(get("/items/{itemId}", itemId).header("X-Sharer-User-Id", ownerId))
+                .andExpect(header().string(HttpHeaders.ETAG, not(tagBefore)));
+    }
+
+    @Test
+    void concurrentEditsConflict() throws Exception {
+        Long ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "editor@example.com")).getId();
+        Long itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null))
+                .getId();
+        AtomicBoolean interleaved = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (interleaved.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        mockMvc.perform(patch("/items/{itemId}", itemId)
+                                        .header("X-Sharer-User-Id", ownerId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content("{\"description\": \"Второе описание\"}"))
+                                .andExpect(status().isOk());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }).get();
+            }
+            return invocation.callRealMethod();
+        }).when(itemVersions).itemAndSearchChanged(anyLong());
+
+        mockMvc.perform(patch("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"Первое описание\"}"))
+                .andExpect(status().isConflict());
+
+        Item item = itemRepository.getExistingItem(itemId);
+        assertThat(item.getDescription()).isEqualTo("Второе описание");
+        assertThat(item.getVersion()).isEqualTo(1);
+    }
+}
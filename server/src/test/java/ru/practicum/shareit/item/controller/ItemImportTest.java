@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.item.model.ItemImportFormat;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code POST /items/import} на H2 с пакетными INSERT: колонки CSV в произвольном порядке и поля NDJSON
+ * попадают в свои колонки {@code items}, некорректные строки попадают в отчёт со своим номером строки,
+ * а ошибка заголовка CSV возвращается как 400 без записи вещей.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "import-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long requestId;
+
+    @BeforeEach
+    void createOwner() {
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        Long requestorId = userService.createUser(new UserDto(null, "Автор запроса", prefix + "requestor@example.com"))
+                .getId();
+        requestId = itemRequestService.addRequest(requestorId, new ItemRequestDto(null, "Нужна дрель", null, null))
+                .getId();
+    }
+
+    @Test
+    void csvColumnsAreMappedAndMalformedRowsReported() throws Exception {
+        String csv = "available,name,requestId,description\n"
+                + "true,\"" + prefix + "дрель\"," + requestId + ",\"Дрель, ударная \"\"Макита\"\"\"\n"
+                + "FALSE," + prefix + "шуруповёрт,,Без запроса\n"
+                + "maybe," + prefix + "молоток,,Описание\n"
+                + "true," + prefix + "пила\n"
+                + "true," + prefix + "лестница,,\"Две строки\nвторая\"\n"
+                + "true," + prefix + "стремянка,999999999,Описание\n"
+                + "true,\"" + prefix + "незакрытая,,Описание\n";
+
+        importItems(ItemImportFormat.CSV, csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(4))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[0].error", containsString("true или false")))
+                .andExpect(jsonPath("$.errors[1].line").value(5))
+                .andExpect(jsonPath("$.errors[2].line").value(8))
+                .andExpect(jsonPath("$.errors[2].error", containsString("999999999")))
+                .andExpect(jsonPath("$.errors[3].line").value(9));
+
+        Map<String, Object> drill = item("дрель");
+        assertThat(drill.get("description")).isEqualTo("Дрель, ударная \"Макита\"");
+        assertThat(drill.get("is_available")).isEqualTo(true);
+        assertThat(drill.get("request_id")).isEqualTo(requestId);
+        assertThat(drill.get("owner_id")).isEqualTo(ownerId);
+        Map<String, Object> screwdriver = item("шуруповёрт");
+        assertThat(screwdriver.get("is_available")).isEqualTo(false);
+        assertThat(screwdriver.get("request_id")).isNull();
+        assertThat(item("лестница").get("description")).isEqualTo("Две строки\nвторая");
+        assertThat(summaries()).isEqualTo(3);
+    }
+
+    @Test
+    void ndjsonFieldsAreMappedAndMalformedRowsReported() throws Exception {
+        String ndjson = "{\"id\": 1, \"name\": \"" + prefix + "ведро\", \"description\": \"Оцинкованное\", "
+                + "\"available\": true, \"requestId\": " + requestId + "}\n"
+                + "\n"
+                + "{\"name\": \"" + prefix + "лопата\", \"description\": \"Штыковая\",\n"
+                + "{\"name\": \"" + prefix + "грабли\", \"available\": false}\n"
+                + "{\"name\": \"" + prefix + "тяпка\", \"description\": \"Садовая\", \"available\": false}\n";
+
+        importItems(ItemImportFormat.NDJSON, ndjson)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].error", containsString("JSON")))
+                .andExpect(jsonPath("$.errors[1].line").value(4));
+
+        Map<String, Object> bucket = item("ведро");
+        assertThat(bucket.get("item_id")).isNotEqualTo(1L);
+        assertThat(bucket.get("description")).isEqualTo("Оцинкованное");
+        assertThat(bucket.get("request_id")).isEqualTo(requestId);
+        assertThat(item("тяпка").get("is_available")).isEqualTo(false);
+        assertThat(summaries()).isEqualTo(2);
+    }
+
+    @Test
+    void csvHeaderErrorsAreBadRequest() throws Exception {
+        importItems(ItemImportFormat.CSV, "name,colour\n" + prefix + "ведро,красный\n")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("colour")));
+        importItems(ItemImportFormat.CSV, "")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("заголовка")));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?", Long.class,
+                ownerId)).isZero();
+    }
+
+    private ResultActions importItems(ItemImportFormat format, String body) throws Exception {
+        return mockMvc.perform(post("/items/import")
+                .header("X-Sharer-User-Id", ownerId)
+                .contentType(format.getMediaType())
+                .content(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Map<String, Object> item(String name) {
+        return jdbcTemplate.queryForMap("SELECT item_id, description, is_available, owner_id, request_id "
+                + "FROM items WHERE name = ?", prefix + name);
+    }
+
+    private long summaries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_booking_summaries s "
+                + "JOIN items i ON i.item_id = s.item_id WHERE i.owner_id = ?", Long.class, ownerId);
+    }
+}
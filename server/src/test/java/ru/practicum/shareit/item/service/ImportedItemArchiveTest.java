@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemImportFormat;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Вещи, загруженные через {@code POST /items/import} пакетными INSERT на H2, читаются через {@code bookings_all}
+ * после архивации их бронирований: пересчитанная сводка находит последнее бронирование в
+ * {@code bookings_history}, а его арендатор может оставить отзыв.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:imported-item-archive;DEFAULT_NULL_ORDERING=HIGH",
+        "shareit.bookings.archive.enabled=true",
+        "shareit.bookings.archive.age=P1D",
+        "shareit.bookings.archive.interval=PT1H"})
+@ActiveProfiles("test")
+class ImportedItemArchiveTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final String prefix = "imported-archive-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void importItemAndArchiveBooking() {
+        User owner = userRepository.save(new User(null, "Владелец", prefix + "owner@example.com", 0));
+        User booker = userRepository.save(new User(null, "Арендатор", prefix + "booker@example.com", 0));
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+
+        String csv = "name,description,available\n" + prefix + "дрель,Ударная,true\n";
+        ItemImportReport report = itemService.importItems(ownerId, ItemImportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertThat(report.getImported()).isEqualTo(1);
+        Item item = itemRepository.findAll().stream()
+                .filter(candidate -> candidate.getName().equals(prefix + "дрель"))
+                .findFirst()
+                .orElseThrow();
+        itemId = item.getId();
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        bookingId = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker,
+                BookingStatus.APPROVED, 0)).getId();
+        bookingArchiver.archive();
+        assertThat(bookingRepository.existsById(bookingId)).isFalse();
+    }
+
+    @Test
+    void recomputedSummaryFindsArchivedBooking() {
+        itemBookingSummaries.markStale(List.of(itemId));
+
+        ItemDto item = itemService.getItemById(itemId, ownerId);
+        assertThat(item.getLastBooking().getId()).isEqualTo(bookingId);
+        assertThat(item.getLastBooking().getBookerId()).isEqualTo(bookerId);
+        assertThat(item.getNextBooking()).isNull();
+        assertThat(itemService.getItems(ownerId, 0, 10, ItemSort.ID_ASC))
+                .singleElement()
+                .satisfies(listed -> assertThat(listed.getLastBooking().getId()).isEqualTo(bookingId));
+    }
+
+    @Test
+    void bookerOfArchivedBookingCanComment() {
+        CommentDto comment = itemService.addComment(bookerId, itemId, new CommentDto(null, "Отличная дрель", null,
+                null));
+
+        assertThat(comment.getId()).isNotNull();
+        assertThat(itemService.getItemById(itemId, bookerId).getComments())
+                .extracting(CommentDto::getText)
+                .containsExactly("Отличная дрель");
+    }
+}
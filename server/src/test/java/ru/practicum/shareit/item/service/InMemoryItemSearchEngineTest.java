@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.search.engine=memory")
+@ActiveProfiles("test")
+class InMemoryItemSearchEngineTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    private final String word = "поиск" + System.nanoTime();
+
+    @Test
+    void addedItemIsFound() {
+        Long ownerId = createOwner();
+        Long itemId = addItem(ownerId, word + " дрель", true);
+
+        assertThat(search(word, 0, 10, ItemSort.ID_ASC)).containsExactly(itemId);
+        assertThat(search(word.toUpperCase() + " ДРЕЛЬ", 0, 10, ItemSort.ID_ASC)).containsExactly(itemId);
+    }
+
+    @Test
+    void editedItemIsFoundByNewTextOnly() {
+        Long ownerId = createOwner();
+        Long itemId = addItem(ownerId, word + " старое", true);
+
+        itemService.editItem(ownerId, itemId, new ItemDto(null, word + " новое", null, null, null));
+
+        assertThat(search(word + " новое", 0, 10, ItemSort.ID_ASC)).containsExactly(itemId);
+        assertThat(search(word + " старое", 0, 10, ItemSort.ID_ASC)).isEmpty();
+    }
+
+    @Test
+    void itemBecomingAvailableIsFound() {
+        Long ownerId = createOwner();
+        Long itemId = addItem(ownerId, word + " недоступная", false);
+        assertThat(search(word, 0, 10, ItemSort.ID_ASC)).isEmpty();
+
+        itemService.editItem(ownerId, itemId, new ItemDto(null, null, null, true, null));
+        assertThat(search(word, 0, 10, ItemSort.ID_ASC)).containsExactly(itemId);
+
+        itemService.editItem(ownerId, itemId, new ItemDto(null, null, null, false, null));
+        assertThat(search(word, 0, 10, ItemSort.ID_ASC)).isEmpty();
+    }
+
+    @Test
+    void substringShorterThanTrigramIsFound() {
+        Long ownerId = createOwner();
+        Long first = addItem(ownerId, word + " ᚠᚢ", true);
+        Long second = addItem(ownerId, word + " ᚢᚠ", true);
+
+        assertThat(search("ᚠᚢ", 0, 10, ItemSort.ID_ASC)).containsExactly(first);
+        assertThat(search("ᚢ", 0, 10, ItemSort.ID_ASC)).containsExactly(first, second);
+        assertThat(search("ᚢ", 0, 10, ItemSort.ID_DESC)).containsExactly(second, first);
+    }
+
+    @Test
+    void pagesFollowIdOrder() {
+        Long ownerId = createOwner();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(addItem(ownerId, word + " страница " + i, true));
+        }
+
+        assertThat(search(word, 0, 2, ItemSort.ID_ASC)).containsExactly(ids.get(0), ids.get(1));
+        assertThat(search(word, 2, 2, ItemSort.ID_ASC)).containsExactly(ids.get(2), ids.get(3));
+        assertThat(search(word, 4, 2, ItemSort.ID_ASC)).containsExactly(ids.get(4));
+        assertThat(search(word, 0, 2, ItemSort.ID_DESC)).containsExactly(ids.get(4), ids.get(3));
+        assertThat(search(word, 4, 2, ItemSort.ID_DESC)).containsExactly(ids.get(0));
+    }
+
+    @Test
+    void deletedOwnerItemsLeaveIndex() {
+        Long removedOwnerId = userService.createUser(new UserDto(null, "Удаляемый", word + "-1@example.com")).getId();
+        Long keptOwnerId = userService.createUser(new UserDto(null, "Остающийся", word + "-2@example.com")).getId();
+        for (int i = 0; i < 3; i++) {
+            itemService.addItem(removedOwnerId, new ItemDto(null, word + " удаляемая " + i, "Описание", true, null));
+        }
+        Long keptItemId = itemService.addItem(keptOwnerId,
+                new ItemDto(null, word + " остающаяся", "Описание", true, null)).getId();
+        assertThat(itemService.searchItems(word, 0, 2, ItemSort.ID_ASC)).hasSize(2);
+
+        userService.deleteUser(removedOwnerId);
+
+        assertThat(search(word, 0, 2, ItemSort.ID_ASC)).containsExactly(keptItemId);
+    }
+
+    private Long createOwner() {
+        return userService.createUser(new UserDto(null, "Владелец", word + "-owner@example.com")).getId();
+    }
+
+    private Long addItem(Long ownerId, String name, boolean available) {
+        return itemService.addItem(ownerId, new ItemDto(null, name, "Описание", available, null)).getId();
+    }
+
+    private List<Long> search(String text, int from, int size, ItemSort sort) {
+        return itemService.searchItems(text, from, size, sort).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
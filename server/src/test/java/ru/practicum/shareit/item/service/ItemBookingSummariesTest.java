@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сводки последнего и следующего бронирования вещей: подтверждение сразу меняет сводку, с наступлением
+ * начала следующего бронирования сводка сдвигается при чтении, а проверка {@code /actuator/bookingsummaries}
+ * находит сводки, разошедшиеся с бронированиями, и помечает их для пересчёта.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemBookingSummariesTest {
+
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+    @Autowired
+    private ItemBookingSummaryEndpoint itemBookingSummaryEndpoint;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "summaries-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long bookerId;
+
+    @BeforeAll
+    void createUsers() {
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Арендатор", prefix + "booker@example.com")).getId();
+    }
+
+    @Test
+    void approvingBookingUpdatesSummary() {
+        Long itemId = addItem("approve");
+        LocalDateTime now = LocalDateTime.now();
+        Long pastId = request(itemId, now.minusDays(2), now.minusDays(1));
+        Long nextId = request(itemId, now.plusDays(1), now.plusDays(2));
+        request(itemId, now.plusDays(3), now.plusDays(4));
+
+        ItemBookingSummary waiting = summaryRepository.findById(itemId).orElseThrow();
+        assertThat(waiting.getLastBookingId()).isNull();
+        assertThat(waiting.getNextBookingId()).isNull();
+
+        approve(pastId, nextId);
+
+        ItemBookingSummary approved = summaryRepository.findById(itemId).orElseThrow();
+        assertThat(approved.getLastBookingId()).isEqualTo(pastId);
+        assertThat(approved.getLastBookerId()).isEqualTo(bookerId);
+        assertThat(approved.getNextBookingId()).isEqualTo(nextId);
+        assertThat(approved.getNextBookerId()).isEqualTo(bookerId);
+        assertThat(approved.getVersion()).isGreaterThan(waiting.getVersion());
+    }
+
+    @Test
+    void lastAndNextRollForwardWhenNextBookingStarts() throws InterruptedException {
+        Long itemId = addItem("roll");
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime soon = now.plusSeconds(1);
+        Long pastId = request(itemId, now.minusDays(2), now.minusDays(1));
+        Long soonId = request(itemId, soon, soon.plusHours(1));
+        Long laterId = request(itemId, now.plusDays(1), now.plusDays(2));
+        approve(pastId, soonId, laterId);
+
+        ItemBookingSummary before = itemBookingSummaries.find(List.of(itemId)).get(itemId);
+        assertThat(before.getLastBookingId()).isEqualTo(pastId);
+        assertThat(before.getNextBookingId()).isEqualTo(soonId);
+
+        while (!LocalDateTime.now().isAfter(soon)) {
+            Thread.sleep(100);
+        }
+        assertThat(summaryRepository.findById(itemId).orElseThrow().isStale(LocalDateTime.now())).isTrue();
+
+        ItemBookingSummary after = itemBookingSummaries.find(List.of(itemId)).get(itemId);
+        assertThat(after.getLastBookingId()).isEqualTo(soonId);
+        assertThat(after.getNextBookingId()).isEqualTo(laterId);
+
+        ItemBookingSummary stored = summaryRepository.findById(itemId).orElseThrow();
+        assertThat(stored.isStale(LocalDateTime.now())).isFalse();
+        assertThat(stored.sameBookings(after)).isTrue();
+    }
+
+    @Test
+    void checkFindsAndRepairsDrift() {
+        Long itemId = addItem("drift");
+        LocalDateTime now = LocalDateTime.now();
+        Long pastId = request(itemId, now.minusDays(2), now.minusDays(1));
+        Long nextId = request(itemId, now.plusDays(1), now.plusDays(2));
+        approve(pastId, nextId);
+        jdbcTemplate.update("UPDATE item_booking_summaries " +
+                "SET next_booking_id = NULL, next_booker_id = NULL, next_start = NULL WHERE item_id = ?", itemId);
+
+        ItemBookingSummaryEndpoint.Report found = itemBookingSummaryEndpoint.check();
+        assertThat(found.getMismatches())
+                .filteredOn(mismatch -> mismatch.getItemId().equals(itemId))
+                .singleElement()
+                .satisfies(mismatch -> {
+                    assertThat(mismatch.getStored().getNextBookingId()).isNull();
+                    assertThat(mismatch.getExpected().getNextBookingId()).isEqualTo(nextId);
+                });
+        assertThat(summaryRepository.findById(itemId).orElseThrow().isStale(LocalDateTime.now())).isFalse();
+
+        ItemBookingSummaryEndpoint.Report repaired = itemBookingSummaryEndpoint.repair();
+        assertThat(repaired.getMismatches()).extracting(ItemBookingSummaryEndpoint.Mismatch::getItemId)
+                .contains(itemId);
+        assertThat(summaryRepository.findById(itemId).orElseThrow().isStale(LocalDateTime.now())).isTrue();
+
+        ItemBookingSummary refreshed = itemBookingSummaries.find(List.of(itemId)).get(itemId);
+        assertThat(refreshed.getLastBookingId()).isEqualTo(pastId);
+        assertThat(refreshed.getNextBookingId()).isEqualTo(nextId);
+        assertThat(itemBookingSummaryEndpoint.check().getMismatches())
+                .extracting(ItemBookingSummaryEndpoint.Mismatch::getItemId)
+                .doesNotContain(itemId);
+    }
+
+    private Long addItem(String name) {
+        return itemService.addItem(ownerId, new ItemDto(null, prefix + name, "Описание", true, null)).getId();
+    }
+
+    private Long request(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingBatchResult result = bookingService.requestBookings(bookerId,
+                List.of(new BookingDtoRequest(null, start, end, itemId))).get(0);
+        assertThat(result.getStatus()).isEqualTo(200);
+        return result.getBooking().getId();
+    }
+
+    private void approve(Long... bookingIds) {
+        List<BookingBatchResult> results = bookingService.confirmBookings(ownerId, Arrays.stream(bookingIds)
+                .map(bookingId -> new BookingDecisionDto(bookingId, true))
+                .collect(Collectors.toList()));
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatus()).isEqualTo(200));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кэш {@code items}: после изменения вещи читается новое значение, а закэшированный снимок не связан
+ * с сессией Hibernate и не меняется вызывающим кодом. Чтения вещи и пользователя, начатые после фиксации
+ * их изменения, видят новые данные и тогда, когда параллельно идут другие чтения и изменения.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private BookingService bookingService;
+
+    private static final int READERS = 4;
+    private static final int WRITES = 50;
+
+    private final String prefix = "cache-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long bookerId;
+
+    @BeforeEach
+    void createUsers() {
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Арендатор", prefix + "booker@example.com")).getId();
+    }
+
+    @Test
+    void editedItemIsReadFresh() {
+        Long itemId = createItem(null);
+        assertThat(itemService.getItemById(itemId, bookerId).getName()).isEqualTo(prefix + "вещь");
+
+        itemService.editItem(ownerId, itemId, new ItemDto(null, prefix + "новое название", "Новое описание", false,
+                null));
+
+        ItemDto item = itemService.getItemById(itemId, bookerId);
+        assertThat(item.getName()).isEqualTo(prefix + "новое название");
+        assertThat(item.getDescription()).isEqualTo("Новое описание");
+        assertThat(item.getAvailable()).isFalse();
+    }
+
+    @Test
+    void cachedItemWithRequestIsUsableInLaterTransactions() {
+        Long requestId = itemRequestService.addRequest(bookerId,
+                new ItemRequestDto(null, "Нужна вещь", null, null)).getId();
+        Long itemId = createItem(requestId);
+        assertThat(itemService.getItemById(itemId, bookerId).getRequestId()).isEqualTo(requestId);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.requestBooking(bookerId, new BookingDtoRequest(null, start, start.plusHours(1), itemId));
+
+        assertThat(itemService.getItemById(itemId, bookerId).getRequestId()).isEqualTo(requestId);
+    }
+
+    @Test
+    void changingItemBuiltFromCacheDoesNotChangeCache() {
+        Long itemId = createItem(null);
+        itemService.getItemById(itemId, bookerId);
+
+        itemRepository.getCachedItem(itemId).toItem().setName("изменено вызывающим кодом");
+
+        assertThat(itemService.getItemById(itemId, bookerId).getName()).isEqualTo(prefix + "вещь");
+    }
+
+    @Test
+    void readsStartedAfterCommitSeeNewData() {
+        Long itemId = createItem(null);
+        AtomicInteger committed = new AtomicInteger();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<String> staleReads = new ConcurrentLinkedQueue<>();
+
+        List<CompletableFuture<Void>> readers = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            readers.add(CompletableFuture.runAsync(() -> {
+                while (writing.get()) {
+                    int expected = committed.get();
+                    int item = revision(itemService.getItemById(itemId, bookerId).getDescription());
+                    int user = revision(userService.getUserById(ownerId).getName());
+                    if (item < expected || user < expected) {
+                        staleReads.add("после " + expected + ": вещь " + item + ", пользователь " + user);
+                    }
+                }
+            }));
+        }
+        try {
+            for (int revision = 1; revision <= WRITES; revision++) {
+                itemService.editItem(ownerId, itemId, new ItemDto(null, null, "Описание-" + revision, null, null));
+                userService.updateUser(ownerId, new UserDto(null, "Владелец-" + revision, null));
+                committed.set(revision);
+            }
+        } finally {
+            writing.set(false);
+        }
+        CompletableFuture.allOf(readers.toArray(CompletableFuture[]::new)).orTimeout(10, TimeUnit.SECONDS).join();
+
+        assertThat(staleReads).isEmpty();
+    }
+
+    private static int revision(String value) {
+        int separator = value.lastIndexOf('-');
+        return separator < 0 ? 0 : Integer.parseInt(value.substring(separator + 1));
+    }
+
+    private Long createItem(Long requestId) {
+        return itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, requestId)).getId();
+    }
+}
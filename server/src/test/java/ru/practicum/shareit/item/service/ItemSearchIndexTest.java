@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+
+    @Test
+    void incrementalMemoryEstimateMatchesRebuild() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.update(1, "Дрель", "Ударная дрель", true);
+        index.update(2, "Пила", "Циркулярная пила", true);
+        index.update(3, "Молоток", "Слесарный", true);
+        index.update(1, "Дрель", "Аккумуляторная дрель", true);
+        index.update(2, "Пила", "Циркулярная пила", false);
+        index.update(4, "Ёж", "", true);
+
+        ItemSearchIndex rebuilt = ItemSearchIndex.build(List.of(
+                new ItemSearchIndex.Document(1, "Дрель", "Аккумуляторная дрель"),
+                new ItemSearchIndex.Document(3, "Молоток", "Слесарный"),
+                new ItemSearchIndex.Document(4, "Ёж", "")));
+        assertThat(index.estimateMemoryBytes()).isEqualTo(rebuilt.estimateMemoryBytes());
+        assertThat(index.gramCount()).isEqualTo(rebuilt.gramCount());
+        assertThat(index.documentCount()).isEqualTo(3);
+
+        index.update(1, null, null, false);
+        index.update(3, null, null, false);
+        index.update(4, null, null, false);
+        assertThat(index.estimateMemoryBytes()).isZero();
+        assertThat(index.gramCount()).isZero();
+    }
+
+    @Test
+    void segmentedPostingsKeepIdOrderAcrossSplitsAndRemovals() {
+        int count = ItemSearchIndex.SEGMENT_SIZE * 4 + 1;
+        ItemSearchIndex index = new ItemSearchIndex();
+        for (int i = count; i >= 1; i--) {
+            index.update(i, "Дрель " + i, "", true);
+        }
+        for (int i = 1; i <= count; i += 2) {
+            index.update(i, "Пила " + i, "", true);
+        }
+
+        List<Long> even = new ArrayList<>();
+        for (long id = 2; id <= count; id += 2) {
+            even.add(id);
+        }
+        assertThat(index.search("дрель", 0, count, false)).isEqualTo(even);
+        assertThat(index.search("дрель", 10, 3, true)).containsExactly(even.get(even.size() - 11),
+                even.get(even.size() - 12), even.get(even.size() - 13));
+        assertThat(index.search("пила 1", 0, 3, false)).containsExactly(1L, 11L, 13L);
+
+        for (int i = 1; i <= count; i++) {
+            index.update(i, null, null, false);
+        }
+        assertThat(index.estimateMemoryBytes()).isZero();
+        assertThat(index.gramCount()).isZero();
+    }
+
+    @Test
+    void shortQueryScansDocumentsInIdOrder() {
+        ItemSearchIndex index = ItemSearchIndex.build(List.of(
+                new ItemSearchIndex.Document(5, "Ёж", "Игрушка"),
+                new ItemSearchIndex.Document(1, "Дрель", "Ёжик на ручке"),
+                new ItemSearchIndex.Document(3, "Пила", "Без совпадения"),
+                new ItemSearchIndex.Document(7, "Щётка", "Для ежедневной уборки")));
+
+        assertThat(index.search("ёж", 0, 10, false)).containsExactly(1L, 5L);
+        assertThat(index.search("ЕЖ", 0, 10, true)).containsExactly(7L);
+        assertThat(index.search("е", 0, 2, false)).containsExactly(1L, 3L);
+        assertThat(index.search("и", 1, 2, true)).containsExactly(5L, 3L);
+    }
+}
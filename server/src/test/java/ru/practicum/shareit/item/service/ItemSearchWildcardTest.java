@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Символы {@code %}, {@code _} и {@code \} в тексте поиска ищутся как есть: они не становятся
+ * шаблонами LIKE, совпадающими с любой вещью.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSearchWildcardTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    private final String prefix = "wildcard-" + System.nanoTime() + "-";
+
+    @BeforeEach
+    void createItems() {
+        Long ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        addItem(ownerId, "скидка", "Скидка 50% на аренду");
+        addItem(ownerId, "змейка", "Строка snake_case в описании");
+        addItem(ownerId, "путь", "Папка C:\\tools");
+        addItem(ownerId, "дрель", "Обычная дрель");
+    }
+
+    @Test
+    void percentMatchesOnlyLiteralPercent() {
+        assertThat(search("%")).containsExactly(prefix + "скидка");
+        assertThat(search("0%")).containsExactly(prefix + "скидка");
+    }
+
+    @Test
+    void underscoreMatchesOnlyLiteralUnderscore() {
+        assertThat(search("_")).containsExactly(prefix + "змейка");
+        assertThat(search("e_c")).containsExactly(prefix + "змейка");
+    }
+
+    @Test
+    void backslashMatchesOnlyLiteralBackslash() {
+        assertThat(search("\\")).containsExactly(prefix + "путь");
+        assertThat(search(":\\t")).containsExactly(prefix + "путь");
+    }
+
+    private void addItem(Long ownerId, String name, String description) {
+        itemService.addItem(ownerId, new ItemDto(null, prefix + name, description, true, null));
+    }
+
+    private List<String> search(String text) {
+        return itemService.searchItems(text, 0, 100, ItemSort.ID_ASC)
+                .stream()
+                .map(ItemDto::getName)
+                .filter(name -> name.startsWith(prefix))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.SqlStatementCounter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSort;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов списка вещей владельца не зависит от размера страницы. Вещи, бронирования и отзывы
+ * сохраняются напрямую через репозитории, сводки бронирований вычисляет первое чтение списка.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemStatementCountTest {
+
+    private static final int ITEMS = 60;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private final String prefix = "statements-" + System.nanoTime() + "-";
+    private Long ownerId;
+
+    @BeforeAll
+    void createItems() {
+        User owner = userRepository.save(new User(null, "Владелец", prefix + "owner@example.com", 0));
+        User booker = userRepository.save(new User(null, "Арендатор", prefix + "booker@example.com", 0));
+        ownerId = owner.getId();
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Item(null, prefix + i, "Описание " + i, true, owner, null, 0, 0));
+        }
+        itemRepository.saveAll(items);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (Item item : items) {
+            bookings.add(new Booking(null, now.minusDays(10), now.minusDays(9), item, booker,
+                    BookingStatus.APPROVED, 0));
+            bookings.add(new Booking(null, now.plusDays(9), now.plusDays(10), item, booker,
+                    BookingStatus.APPROVED, 0));
+            comments.add(new Comment(null, "Отзыв", item, booker, now));
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        itemService.getItems(ownerId, 0, ITEMS, ItemSort.ID_ASC);
+    }
+
+    @Test
+    void getItemsRunsSameNumberOfStatementsForAnyPageSize() {
+        List<Integer> counts = new ArrayList<>();
+        for (int size : new int[]{1, 10, ITEMS}) {
+            sqlStatementCounter.start();
+            List<ItemDto> items = itemService.getItems(ownerId, 0, size, ItemSort.ID_ASC);
+            counts.add(sqlStatementCounter.finish());
+
+            assertThat(items).hasSize(size);
+            assertThat(items).allSatisfy(item -> {
+                assertThat(item.getLastBooking()).isNotNull();
+                assertThat(item.getNextBooking()).isNotNull();
+                assertThat(item.getComments()).hasSize(1);
+            });
+        }
+
+        assertThat(counts).containsOnly(counts.get(0));
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Версия поиска общая для экземпляров сервера с одной БД: второй контекст на той же базе H2 видит
+ * изменение, сделанное первым, а откаченное изменение версию не меняет. Неудачное увеличение версии после
+ * фиксации повторяется. Запись вещи одним владельцем не ждёт незафиксированной записи другого.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemVersionsTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemVersions itemVersions;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Environment environment;
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "versions-" + System.nanoTime() + "-";
+    private ConfigurableApplicationContext otherInstance;
+    private Long ownerId;
+
+    @BeforeEach
+    void startOtherInstance() {
+        otherInstance = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties("spring.datasource.url=" + environment.getProperty("spring.datasource.url"))
+                .run();
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+    }
+
+    @AfterEach
+    void stopOtherInstance() {
+        otherInstance.close();
+    }
+
+    @Test
+    void otherInstanceSeesSearchChanges() {
+        ItemVersions otherVersions = otherInstance.getBean(ItemVersions.class);
+        String before = otherVersions.searchTag();
+
+        Long itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null))
+                .getId();
+        String afterAdd = otherVersions.searchTag();
+        itemService.editItem(ownerId, itemId, new ItemDto(null, null, "Новое описание", null, null));
+        String afterEdit = otherVersions.searchTag();
+
+        assertThat(afterAdd).isNotEqualTo(before);
+        assertThat(afterEdit).isNotEqualTo(afterAdd);
+        assertThat(itemVersions.searchTag()).isEqualTo(afterEdit);
+    }
+
+    @Test
+    void rolledBackChangeKeepsSearchTag() {
+        String before = itemVersions.searchTag();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemVersions.itemAndSearchChanged(1L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(itemVersions.searchTag()).isEqualTo(before);
+        assertThat(otherInstance.getBean(ItemVersions.class).searchTag()).isEqualTo(before);
+    }
+
+    @Test
+    void failedSearchVersionIncrementIsRetried() {
+        String before = itemVersions.searchTag();
+        doThrow(new DataAccessResourceFailureException("Соединение закрыто"))
+                .doCallRealMethod()
+                .when(jdbcTemplate).queryForObject(startsWith("SELECT nextval"), eq(Long.class));
+
+        itemService.addItem(ownerId, new ItemDto(null, prefix + "вещь", "Описание", true, null));
+
+        assertThat(itemVersions.searchTag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void ownersWritesDoNotBlockEachOther() {
+        Long otherOwnerId = userService.createUser(
+                new UserDto(null, "Другой владелец", prefix + "other@example.com")).getId();
+        String before = itemVersions.searchTag();
+
+        String duringOpenWrite = transactionTemplate.execute(status -> {
+            itemService.addItem(ownerId, new ItemDto(null, prefix + "первая", "Описание", true, null));
+            return CompletableFuture.supplyAsync(() -> {
+                Long itemId = itemService.addItem(otherOwnerId,
+                        new ItemDto(null, prefix + "вторая", "Описание", true, null)).getId();
+                itemService.editItem(otherOwnerId, itemId, new ItemDto(null, null, "Новое описание", null, null));
+                return itemVersions.searchTag();
+            }).orTimeout(5, TimeUnit.SECONDS).join();
+        });
+
+        assertThat(duringOpenWrite).isNotEqualTo(before);
+        assertThat(itemVersions.searchTag()).isNotEqualTo(duringOpenWrite);
+    }
+}
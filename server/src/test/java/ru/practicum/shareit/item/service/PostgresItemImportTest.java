@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.PostgresDatabase;
+import ru.practicum.shareit.exception.ImportException;
+import ru.practicum.shareit.item.dto.ItemImportReport;
+import ru.practicum.shareit.item.model.ItemImportFormat;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Загрузка вещей через {@code COPY} на PostgreSQL: запятые, кавычки, переводы строк и обратная косая черта
+ * в описании доходят до {@code items} без искажений, пустой ID запроса становится NULL, для каждой вещи
+ * создаётся строка {@code item_booking_summaries}, а некорректные строки CSV и NDJSON в COPY не попадают.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIf("ru.practicum.shareit.PostgresDatabase#available")
+class PostgresItemImportTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresDatabase.register(registry);
+    }
+
+    private final String prefix = "copy-" + System.nanoTime() + "-";
+    private Long ownerId;
+    private Long requestId;
+
+    @BeforeEach
+    void createOwner() {
+        ownerId = userService.createUser(new UserDto(null, "Владелец", prefix + "owner@example.com")).getId();
+        Long requestorId = userService.createUser(new UserDto(null, "Автор запроса", prefix + "requestor@example.com"))
+                .getId();
+        requestId = itemRequestService.addRequest(requestorId, new ItemRequestDto(null, "Нужна дрель", null, null))
+                .getId();
+    }
+
+    @Test
+    void csvIsCopiedWithColumnMapping() throws IOException {
+        String csv = "\uFEFFDescription,requestId,Name,available\n"
+                + "\"Дрель, ударная \"\"Макита\"\"\nC:\\инструменты\"," + requestId + "," + prefix + "дрель,true\n"
+                + "Без запроса,," + prefix + "шуруповёрт,false\n"
+                + "Описание,abc," + prefix + "молоток,true\n";
+
+        ItemImportReport report = importItems(ItemImportFormat.CSV, csv);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(5);
+        assertThat(report.getErrors().get(0).getError()).contains("abc");
+        Map<String, Object> drill = item("дрель");
+        assertThat(drill.get("description")).isEqualTo("Дрель, ударная \"Макита\"\nC:\\инструменты");
+        assertThat(drill.get("is_available")).isEqualTo(true);
+        assertThat(drill.get("request_id")).isEqualTo(requestId);
+        assertThat(drill.get("owner_id")).isEqualTo(ownerId);
+        Map<String, Object> screwdriver = item("шуруповёрт");
+        assertThat(screwdriver.get("is_available")).isEqualTo(false);
+        assertThat(screwdriver.get("request_id")).isNull();
+        assertThat(summaries()).isEqualTo(2);
+    }
+
+    @Test
+    void ndjsonIsCopiedWithFieldMapping() throws IOException {
+        String ndjson = "{\"name\": \"" + prefix + "ведро\", \"description\": \"Таб\\tи \\\\N\", \"available\": true, "
+                + "\"requestId\": " + requestId + "}\n"
+                + "{\"name\": \"" + prefix + "лопата\", \"description\": \"Штыковая\", \"available\": \"да\"}\n"
+                + "{\"name\": \"" + prefix + "тяпка\", \"description\": \"Садовая\", \"available\": false}\n";
+
+        ItemImportReport report = importItems(ItemImportFormat.NDJSON, ndjson);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(2);
+        Map<String, Object> bucket = item("ведро");
+        assertThat(bucket.get("description")).isEqualTo("Таб\tи \\N");
+        assertThat(bucket.get("request_id")).isEqualTo(requestId);
+        assertThat(item("тяпка").get("is_available")).isEqualTo(false);
+        assertThat(summaries()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownCsvColumnIsRejectedBeforeCopy() {
+        assertThatThrownBy(() -> importItems(ItemImportFormat.CSV, "name,colour\n" + prefix + "ведро,красный\n"))
+                .isInstanceOf(ImportException.class)
+                .hasMessageContaining("colour");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?", Long.class,
+                ownerId)).isZero();
+    }
+
+    private ItemImportReport importItems(ItemImportFormat format, String body) throws IOException {
+        return itemService.importItems(ownerId, format,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Map<String, Object> item(String name) {
+        return jdbcTemplate.queryForMap("SELECT description, is_available, owner_id, request_id "
+                + "FROM items WHERE name = ?", prefix + name);
+    }
+
+    private long summaries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_booking_summaries s "
+                + "JOIN items i ON i.item_id = s.item_id WHERE i.owner_id = ?", Long.class, ownerId);
+    }
+}
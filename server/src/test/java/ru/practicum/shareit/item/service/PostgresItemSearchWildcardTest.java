@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.PostgresDatabase;
+
+/**
+ * Те же проверки для полнотекстового поиска PostgreSQL, где подстрока ищется через ILIKE.
+ */
+@EnabledIf("ru.practicum.shareit.PostgresDatabase#available")
+class PostgresItemSearchWildcardTest extends ItemSearchWildcardTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        PostgresDatabase.register(registry);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.config.SqlStatementCounter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequestSort;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Вещи, добавленные в ответ на запросы, загружаются одним запросом на страницу без их владельцев, а авторы
+ * запросов не загружаются вовсе: число SQL-запросов списков запросов не зависит от размера страницы, хотя
+ * у каждого запроса свой автор, а у каждой вещи свой владелец.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemRequestStatementCountTest {
+
+    private static final int REQUESTS = 30;
+    private static final int ITEMS_PER_REQUEST = 2;
+    private static final int MAX_STATEMENTS = 3;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private final String prefix = "requests-" + System.nanoTime() + "-";
+    private Long requestorId;
+    private final Set<Long> otherRequestIds = new HashSet<>();
+
+    @BeforeAll
+    void createRequests() {
+        requestorId = createUser("requestor");
+        for (int i = 0; i < REQUESTS; i++) {
+            addRequestWithItems(requestorId, "own-" + i);
+            otherRequestIds.add(addRequestWithItems(createUser("other-requestor" + i), "other-" + i));
+        }
+        itemRequestService.getAllRequests(requestorId, 0, REQUESTS, ItemRequestSort.CREATED_DESC);
+    }
+
+    @Test
+    void getAllRequestsRunsSameNumberOfStatementsForAnyPageSize() {
+        List<Integer> counts = new ArrayList<>();
+        for (int size : new int[]{1, 10, REQUESTS}) {
+            sqlStatementCounter.start();
+            List<ItemRequestDto> requests = itemRequestService.getAllRequests(requestorId, 0, size,
+                    ItemRequestSort.CREATED_DESC);
+            counts.add(sqlStatementCounter.finish());
+
+            assertThat(requests).hasSize(size);
+            assertThat(requests).allSatisfy(request -> {
+                assertThat(request.getId()).isIn(otherRequestIds);
+                assertThat(request.getItems()).hasSize(ITEMS_PER_REQUEST);
+            });
+        }
+
+        assertThat(counts).containsOnly(counts.get(0));
+    }
+
+    @Test
+    void getRequestsLoadsItemsInOneStatement() {
+        sqlStatementCounter.start();
+        List<ItemRequestDto> requests = itemRequestService.getRequests(requestorId);
+        int count = sqlStatementCounter.finish();
+
+        assertThat(requests).hasSize(REQUESTS);
+        assertThat(requests).allSatisfy(request -> assertThat(request.getItems()).hasSize(ITEMS_PER_REQUEST));
+        assertThat(count).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    /**
+     * Запрос, на который каждый предмет добавил свой владелец.
+     */
+    private Long addRequestWithItems(Long userId, String name) {
+        Long requestId = itemRequestService.addRequest(userId, new ItemRequestDto(null, prefix + name, null, null))
+                .getId();
+        for (int j = 0; j < ITEMS_PER_REQUEST; j++) {
+            itemService.addItem(createUser("owner-" + name + "-" + j),
+                    new ItemDto(null, prefix + name + "-" + j, "Описание", true, requestId));
+        }
+        return requestId;
+    }
+
+    private Long createUser(String name) {
+        return userService.createUser(new UserDto(null, name, prefix + name + "@example.com")).getId();
+    }
+}
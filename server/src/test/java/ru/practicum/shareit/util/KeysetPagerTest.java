@@ -0,0 +1,147 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingSort;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Постраничный обход бронирований по окончанию, когда у части записей окончание NULL: курсор на такой
+ * записи разбирается, каждое бронирование попадает ровно на одну страницу, NULL идут после значений
+ * по возрастанию и перед ними по убыванию.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class KeysetPagerTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "keyset-" + System.nanoTime() + "-";
+    private Long bookerId;
+    private List<Long> withEnd;
+    private List<Long> withoutEnd;
+
+    @BeforeEach
+    void createBookings() {
+        Long ownerId = createUser("owner");
+        bookerId = createUser("booker");
+        Long itemId = itemService.addItem(ownerId, new ItemDto(null, prefix + "item", "Описание", true, null))
+                .getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        withEnd = new ArrayList<>();
+        withoutEnd = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            withEnd.add(insertBooking(itemId, start, start.plusHours(1 + i % 2)));
+            withoutEnd.add(insertBooking(itemId, start, null));
+        }
+    }
+
+    @Test
+    void ascendingPagesPutNullKeysLast() {
+        List<BookingDtoResponse> bookings = readAll(BookingSort.END_ASC);
+
+        assertThat(ids(bookings)).containsExactlyElementsOf(expected(false));
+        assertThat(bookings.subList(withEnd.size(), bookings.size())).allMatch(booking -> booking.getEnd() == null);
+    }
+
+    @Test
+    void descendingPagesPutNullKeysFirst() {
+        List<BookingDtoResponse> bookings = readAll(BookingSort.END_DESC);
+
+        assertThat(ids(bookings)).containsExactlyElementsOf(expected(true));
+        assertThat(bookings.subList(0, withoutEnd.size())).allMatch(booking -> booking.getEnd() == null);
+    }
+
+    @Test
+    void cursorWithNullKeySurvivesRoundTrip() {
+        PageCursor cursor = PageCursor.decode(new PageCursor("end:ASC", 42, null).encode());
+
+        assertThat(cursor.getSort()).isEqualTo("end:ASC");
+        assertThat(cursor.getId()).isEqualTo(42);
+        assertThat(cursor.getKey()).isNull();
+    }
+
+    private List<BookingDtoResponse> readAll(BookingSort sort) {
+        List<BookingDtoResponse> bookings = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<BookingDtoResponse> page = bookingService.getUserBookingsPage(bookerId, "WAITING", cursor,
+                    PAGE_SIZE, sort);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            bookings.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return bookings;
+    }
+
+    /**
+     * Порядок (окончание, ID): два бронирования на час, затем два на два часа, затем без окончания.
+     */
+    private List<Long> expected(boolean descending) {
+        Comparator<Long> byId = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        List<Long> shortOnes = new ArrayList<>(List.of(withEnd.get(0), withEnd.get(2)));
+        List<Long> longOnes = new ArrayList<>(List.of(withEnd.get(1), withEnd.get(3)));
+        List<Long> nullOnes = new ArrayList<>(withoutEnd);
+        shortOnes.sort(byId);
+        longOnes.sort(byId);
+        nullOnes.sort(byId);
+        List<Long> expected = new ArrayList<>();
+        if (descending) {
+            expected.addAll(nullOnes);
+            expected.addAll(longOnes);
+            expected.addAll(shortOnes);
+        } else {
+            expected.addAll(shortOnes);
+            expected.addAll(longOnes);
+            expected.addAll(nullOnes);
+        }
+        return expected;
+    }
+
+    private static List<Long> ids(List<BookingDtoResponse> bookings) {
+        return bookings.stream()
+                .map(BookingDtoResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Long insertBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR bookings_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, ?, 'WAITING')", id, Timestamp.valueOf(start),
+                end == null ? null : Timestamp.valueOf(end), itemId, bookerId);
+        return id;
+    }
+
+    private Long createUser(String role) {
+        String name = prefix + role;
+        return userService.createUser(new UserDto(null, name, name + "@example.com")).getId();
+    }
+}
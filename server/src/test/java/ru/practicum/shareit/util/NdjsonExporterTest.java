@@ -0,0 +1,98 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Выгрузка двух миллионов строк, которые создаются по мере чтения: строки уходят в ответ, пока следующие ещё
+ * не прочитаны, выгруженные строки не удерживаются, и занятая куча после сборки мусора в конце выгрузки почти
+ * не отличается от начала. Удержание всех строк заняло бы сотни мегабайт.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NdjsonExporterTest {
+
+    private static final long ROWS = 2_000_000;
+    private static final long CHECKPOINT = 100_000;
+    private static final long BUFFERED_ROWS = 1_000;
+    private static final long HEAP_GROWTH_LIMIT = 32L << 20;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private WeakReference<BookingDtoResponse> firstRow;
+    private long linesAtCheckpoint;
+    private boolean firstRowCollected;
+    private long heapAtCheckpoint;
+    private long heapAtEnd;
+
+    @Test
+    void exportStreamsRowsWithoutRetainingThem() throws Exception {
+        LineCounter out = new LineCounter();
+
+        ndjsonExporter.export(() -> LongStream.rangeClosed(1, ROWS)
+                        .mapToObj(this::row)
+                        .peek(row -> {
+                            if (row.getId() == 1) {
+                                firstRow = new WeakReference<>(row);
+                            } else if (row.getId() == CHECKPOINT) {
+                                linesAtCheckpoint = out.lines;
+                                heapAtCheckpoint = usedHeapAfterGc();
+                                firstRowCollected = firstRow.get() == null;
+                            } else if (row.getId() == ROWS) {
+                                heapAtEnd = usedHeapAfterGc();
+                            }
+                        }))
+                .writeTo(out);
+
+        assertThat(out.lines).isEqualTo(ROWS);
+        assertThat(linesAtCheckpoint).isGreaterThanOrEqualTo(CHECKPOINT - BUFFERED_ROWS);
+        assertThat(firstRowCollected).isTrue();
+        assertThat(heapAtEnd - heapAtCheckpoint).isLessThan(HEAP_GROWTH_LIMIT);
+    }
+
+    private BookingDtoResponse row(long id) {
+        return new BookingDtoResponse(id, start.plusHours(id), start.plusHours(id + 1),
+                id % 1000, "Вещь " + id % 1000, id % 100, "Пользователь " + id % 100, BookingStatus.APPROVED);
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static class LineCounter extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}